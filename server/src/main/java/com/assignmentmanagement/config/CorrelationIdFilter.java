@@ -0,0 +1,48 @@
+package com.assignmentmanagement.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * Tags every request with a correlation id so that log lines from one request can be grouped.
+ * Reuses the caller's X-Request-Id when present and echoes it back on the response.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class CorrelationIdFilter extends OncePerRequestFilter {
+
+    public static final String HEADER_NAME = "X-Request-Id";
+    public static final String MDC_KEY = "correlationId";
+
+    private static final int MAX_LENGTH = 64;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                  HttpServletResponse response,
+                                  FilterChain filterChain) throws ServletException, IOException {
+
+        String correlationId = request.getHeader(HEADER_NAME);
+        if (!StringUtils.hasText(correlationId) || correlationId.length() > MAX_LENGTH) {
+            correlationId = UUID.randomUUID().toString().replace("-", "").substring(0, 16);
+        }
+
+        MDC.put(MDC_KEY, correlationId);
+        response.setHeader(HEADER_NAME, correlationId);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            MDC.remove(MDC_KEY);
+        }
+    }
+}
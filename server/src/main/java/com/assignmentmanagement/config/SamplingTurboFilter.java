@@ -0,0 +1,68 @@
+package com.assignmentmanagement.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Logback turbo filter that keeps only a fraction of DEBUG/TRACE events per logger category.
+ * INFO and above always pass. Configured in logback-spring.xml, e.g.
+ * {@code <sample>com.assignmentmanagement.security=0.01</sample>}.
+ */
+public class SamplingTurboFilter extends TurboFilter {
+
+    private final Map<String, Double> rates = new ConcurrentHashMap<>();
+
+    // Resolved rate per logger name, so the prefix lookup runs once per logger
+    private final Map<String, Double> resolvedRates = new ConcurrentHashMap<>();
+
+    /**
+     * Adds a category rate in the form {@code logger.prefix=rate}, with rate between 0 and 1
+     */
+    public void addSample(String sample) {
+        int separator = sample.lastIndexOf('=');
+        if (separator <= 0) {
+            addError("Invalid sample definition: " + sample);
+            return;
+        }
+        String category = sample.substring(0, separator).trim();
+        double rate = Double.parseDouble(sample.substring(separator + 1).trim());
+        rates.put(category, Math.max(0.0, Math.min(1.0, rate)));
+        resolvedRates.clear();
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (!isStarted() || level == null || level.isGreaterOrEqual(Level.INFO)) {
+            return FilterReply.NEUTRAL;
+        }
+        // Let the logger's own level decide first, so disabled debug calls cost nothing extra
+        if (!level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+
+        double rate = resolvedRates.computeIfAbsent(logger.getName(), this::resolveRate);
+        if (rate >= 1.0) {
+            return FilterReply.NEUTRAL;
+        }
+        return ThreadLocalRandom.current().nextDouble() < rate ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    private double resolveRate(String loggerName) {
+        String bestMatch = null;
+        for (String category : rates.keySet()) {
+            if (loggerName.equals(category) || loggerName.startsWith(category + ".")) {
+                if (bestMatch == null || category.length() > bestMatch.length()) {
+                    bestMatch = category;
+                }
+            }
+        }
+        return bestMatch != null ? rates.get(bestMatch) : 1.0;
+    }
+}
@@ -1,12 +1,32 @@
 package com.assignmentmanagement.config;
 
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Open-in-view for ordinary requests only (spring.jpa.open-in-view is off). Long-lived
+     * responses are excluded, since the interceptor would hold their connection until they end.
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        OpenEntityManagerInViewInterceptor interceptor = new OpenEntityManagerInViewInterceptor();
+        interceptor.setEntityManagerFactory(entityManagerFactory);
+        registry.addWebRequestInterceptor(interceptor)
+                .excludePathPatterns("/api/submissions/*/annotations/stream",
+                        "/api/submissions/assignment/*/archive");
+    }
+
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
         // Explicitly configure static resource handling to avoid conflicts with API endpoints
@@ -0,0 +1,230 @@
+package com.assignmentmanagement.controller;
+
+import com.assignmentmanagement.dto.AnnotationBatchRequest;
+import com.assignmentmanagement.model.Submission;
+import com.assignmentmanagement.model.UserRole;
+import com.assignmentmanagement.security.AuthenticatedUser;
+import com.assignmentmanagement.service.AnnotationService;
+import com.assignmentmanagement.service.AnnotationSpatialIndex;
+import com.assignmentmanagement.service.AnnotationSyncHub;
+import com.assignmentmanagement.service.SubmissionService;
+import com.assignmentmanagement.service.UserService;
+import com.assignmentmanagement.util.AnnotationColumnCodec;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/submissions/{submissionId}/annotations")
+@CrossOrigin(origins = "http://localhost:5173")
+public class AnnotationController {
+
+    @Autowired
+    private AnnotationService annotationService;
+
+    @Autowired
+    private SubmissionService submissionService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private AnnotationSpatialIndex annotationSpatialIndex;
+
+    @Autowired
+    private AnnotationSyncHub annotationSyncHub;
+
+    /**
+     * Annotations on a page range, or the changes since a version the client holds.
+     * format=compact returns the columnar binary encoding instead of JSON.
+     */
+    @GetMapping
+    public ResponseEntity<?> getAnnotations(@PathVariable Long submissionId,
+                                            @RequestParam(value = "fromPage", defaultValue = "1") int fromPage,
+                                            @RequestParam(value = "toPage", required = false) Integer toPage,
+                                            @RequestParam(value = "since", required = false) Long sinceVersion,
+                                            @RequestParam(value = "format", defaultValue = "json") String format,
+                                            Authentication authentication) {
+        try {
+            ResponseEntity<?> denied = checkReadAccess(submissionId, authentication);
+            if (denied != null) {
+                return denied;
+            }
+
+            AnnotationService.AnnotationWindow window = annotationService.getAnnotationWindow(submissionId,
+                fromPage, toPage != null ? toPage : Integer.MAX_VALUE, sinceVersion);
+
+            if ("compact".equalsIgnoreCase(format)) {
+                return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType(AnnotationColumnCodec.MEDIA_TYPE))
+                    .body(AnnotationColumnCodec.encode(window.getVersion(), window.isFull(),
+                        window.getAnnotations(), window.getDeleted()));
+            }
+            return ResponseEntity.ok(window);
+
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body(new MessageResponse("Error fetching annotations: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Server-sent event stream of annotation changes: a hello event with the current version,
+     * then merged delta events, and a resync event if the client fell too far behind.
+     * Excluded from open-in-view (see WebConfig), so it must not touch lazy associations.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<?> streamAnnotations(@PathVariable Long submissionId, Authentication authentication) {
+        try {
+            AuthenticatedUser currentUser = (AuthenticatedUser) authentication.getPrincipal();
+            AnnotationService.StreamAccess access = annotationService.getStreamAccess(submissionId);
+
+            if (access == null) {
+                return ResponseEntity.notFound().build();
+            }
+            boolean owner = currentUser.getRole() == UserRole.TEACHER && access.getTeacherId().equals(currentUser.getId());
+            boolean submitter = currentUser.getRole() == UserRole.STUDENT && access.getStudentId().equals(currentUser.getId());
+            if (!owner && !submitter) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(new MessageResponse("Access denied"));
+            }
+            return ResponseEntity.ok(annotationSyncHub.subscribe(submissionId, access.getVersion()));
+
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body(new MessageResponse("Error opening annotation stream: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/region")
+    public ResponseEntity<?> getAnnotationsInRegion(@PathVariable Long submissionId,
+                                                    @RequestParam("page") int page,
+                                                    @RequestParam("x") float x,
+                                                    @RequestParam("y") float y,
+                                                    @RequestParam("width") float width,
+                                                    @RequestParam("height") float height,
+                                                    Authentication authentication) {
+        try {
+            ResponseEntity<?> denied = checkReadAccess(submissionId, authentication);
+            if (denied != null) {
+                return denied;
+            }
+            return ResponseEntity.ok(annotationSpatialIndex.findIntersecting(submissionId, page, x, y, width, height));
+
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body(new MessageResponse("Error querying annotations: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/hit")
+    public ResponseEntity<?> getAnnotationsAtPoint(@PathVariable Long submissionId,
+                                                   @RequestParam("page") int page,
+                                                   @RequestParam("x") float x,
+                                                   @RequestParam("y") float y,
+                                                   Authentication authentication) {
+        try {
+            ResponseEntity<?> denied = checkReadAccess(submissionId, authentication);
+            if (denied != null) {
+                return denied;
+            }
+            return ResponseEntity.ok(annotationSpatialIndex.findAt(submissionId, page, x, y));
+
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body(new MessageResponse("Error querying annotations: " + e.getMessage()));
+        }
+    }
+
+    @PostMapping("/batch")
+    @PreAuthorize("hasRole('TEACHER')")
+    public ResponseEntity<?> applyBatch(@PathVariable Long submissionId,
+                                        @Valid @RequestBody AnnotationBatchRequest request,
+                                        Authentication authentication) {
+        try {
+            AuthenticatedUser teacher = (AuthenticatedUser) authentication.getPrincipal();
+            Optional<Submission> submissionOpt = submissionService.findById(submissionId);
+
+            if (submissionOpt.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+
+            Submission submission = submissionOpt.get();
+            if (!isAssignmentOwner(teacher, submission)) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(new MessageResponse("Access denied"));
+            }
+
+            AnnotationService.BatchResult result = annotationService.applyBatch(
+                submission, userService.getUserReference(teacher), request);
+            // Committed by now, so the in-memory index can follow it
+            annotationSpatialIndex.applyBatch(submissionId, result.getVersion(),
+                request.getDeletes(), result.getAnnotations());
+            annotationSyncHub.publish(submissionId, result.getVersion(),
+                request.getDeletes(), result.getAnnotations());
+            return ResponseEntity.ok(result);
+
+        } catch (AnnotationService.VersionConflictException e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("message", e.getMessage());
+            response.put("version", e.getCurrentVersion());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body(new MessageResponse("Error saving annotations: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Returns the error response if the submission is missing or not visible to the user, otherwise null
+     */
+    private ResponseEntity<?> checkReadAccess(Long submissionId, Authentication authentication) {
+        AuthenticatedUser currentUser = (AuthenticatedUser) authentication.getPrincipal();
+        Optional<Submission> submissionOpt = submissionService.findById(submissionId);
+
+        if (submissionOpt.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!isAssignmentOwner(currentUser, submissionOpt.get()) && !isSubmitter(currentUser, submissionOpt.get())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                .body(new MessageResponse("Access denied"));
+        }
+        return null;
+    }
+
+    private boolean isAssignmentOwner(AuthenticatedUser user, Submission submission) {
+        return user.getRole() == UserRole.TEACHER
+            && submission.getAssignment().getCreatedBy().getId().equals(user.getId());
+    }
+
+    private boolean isSubmitter(AuthenticatedUser user, Submission submission) {
+        return user.getRole() == UserRole.STUDENT
+            && submission.getStudent().getId().equals(user.getId());
+    }
+
+    // Inner class for response messages
+    public static class MessageResponse {
+        private String message;
+
+        public MessageResponse(String message) {
+            this.message = message;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+    }
+}
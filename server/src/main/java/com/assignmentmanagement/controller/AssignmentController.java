@@ -2,9 +2,14 @@ package com.assignmentmanagement.controller;
 
 import com.assignmentmanagement.dto.AssignmentRequest;
 import com.assignmentmanagement.dto.AssignmentResponse;
+import com.assignmentmanagement.dto.AssignmentSnapshot;
 import com.assignmentmanagement.model.Assignment;
 import com.assignmentmanagement.model.User;
+import com.assignmentmanagement.model.UserRole;
+import com.assignmentmanagement.security.AuthenticatedUser;
 import com.assignmentmanagement.service.AssignmentService;
+import com.assignmentmanagement.service.SubmissionService;
+import com.assignmentmanagement.service.UserService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -15,7 +20,6 @@ import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/assignments")
@@ -25,12 +29,18 @@ public class AssignmentController {
     @Autowired
     private AssignmentService assignmentService;
 
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private SubmissionService submissionService;
+
     @PostMapping
     @PreAuthorize("hasRole('TEACHER')")
     public ResponseEntity<?> createAssignment(@Valid @RequestBody AssignmentRequest request, 
                                             Authentication authentication) {
         try {
-            User teacher = (User) authentication.getPrincipal();
+            User teacher = userService.getUserReference((AuthenticatedUser) authentication.getPrincipal());
             
             Assignment assignment = assignmentService.createAssignment(
                 request.getTitle(),
@@ -41,7 +51,7 @@ public class AssignmentController {
                 request.getInstructions()
             );
 
-            return ResponseEntity.ok(new AssignmentResponse(assignment));
+            return ResponseEntity.ok(new AssignmentResponse(assignment, 0));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                 .body(new MessageResponse("Error creating assignment: " + e.getMessage()));
@@ -52,12 +62,8 @@ public class AssignmentController {
     @PreAuthorize("hasRole('TEACHER')")
     public ResponseEntity<?> getTeacherAssignments(Authentication authentication) {
         try {
-            User teacher = (User) authentication.getPrincipal();
-            List<Assignment> assignments = assignmentService.findAssignmentsByTeacher(teacher);
-            
-            List<AssignmentResponse> response = assignments.stream()
-                .map(AssignmentResponse::new)
-                .collect(Collectors.toList());
+            User teacher = userService.getUserReference((AuthenticatedUser) authentication.getPrincipal());
+            List<AssignmentResponse> response = assignmentService.findAssignmentSummariesByTeacher(teacher);
 
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -66,6 +72,17 @@ public class AssignmentController {
         }
     }
 
+    @GetMapping("/code-space")
+    @PreAuthorize("hasRole('TEACHER')")
+    public ResponseEntity<?> getCodeSpaceUsage() {
+        try {
+            return ResponseEntity.ok(assignmentService.getCodeSpaceUsage());
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body(new MessageResponse("Error fetching code space usage: " + e.getMessage()));
+        }
+    }
+
     @GetMapping("/search/{code}")
     public ResponseEntity<?> getAssignmentByCode(@PathVariable String code) {
         try {
@@ -74,7 +91,7 @@ public class AssignmentController {
                     .body(new MessageResponse("Invalid assignment code format"));
             }
 
-            Optional<Assignment> assignment = assignmentService.findByAssignmentCode(code);
+            Optional<AssignmentSnapshot> assignment = assignmentService.findSnapshotByCode(code);
             
             if (assignment.isPresent()) {
                 return ResponseEntity.ok(new AssignmentResponse(assignment.get()));
@@ -94,16 +111,16 @@ public class AssignmentController {
             
             if (assignmentOpt.isPresent()) {
                 Assignment assignment = assignmentOpt.get();
-                User currentUser = (User) authentication.getPrincipal();
+                AuthenticatedUser currentUser = (AuthenticatedUser) authentication.getPrincipal();
                 
                 // Check if user has access to this assignment
-                if (currentUser.getRole().name().equals("TEACHER") && 
+                if (currentUser.getRole() == UserRole.TEACHER && 
                     !assignment.getCreatedBy().getId().equals(currentUser.getId())) {
                     return ResponseEntity.status(HttpStatus.FORBIDDEN)
                         .body(new MessageResponse("Access denied"));
                 }
                 
-                return ResponseEntity.ok(new AssignmentResponse(assignment));
+                return ResponseEntity.ok(new AssignmentResponse(assignment, submissionService.getSubmissionCount(assignment)));
             } else {
                 return ResponseEntity.notFound().build();
             }
@@ -119,7 +136,7 @@ public class AssignmentController {
                                             @Valid @RequestBody AssignmentRequest request,
                                             Authentication authentication) {
         try {
-            User teacher = (User) authentication.getPrincipal();
+            AuthenticatedUser teacher = (AuthenticatedUser) authentication.getPrincipal();
             Optional<Assignment> assignmentOpt = assignmentService.findById(id);
             
             if (assignmentOpt.isPresent()) {
@@ -138,7 +155,8 @@ public class AssignmentController {
                 assignment.setInstructions(request.getInstructions());
                 
                 Assignment updatedAssignment = assignmentService.updateAssignment(assignment);
-                return ResponseEntity.ok(new AssignmentResponse(updatedAssignment));
+                return ResponseEntity.ok(new AssignmentResponse(updatedAssignment,
+                    submissionService.getSubmissionCount(updatedAssignment)));
             } else {
                 return ResponseEntity.notFound().build();
             }
@@ -152,7 +170,7 @@ public class AssignmentController {
     @PreAuthorize("hasRole('TEACHER')")
     public ResponseEntity<?> deleteAssignment(@PathVariable Long id, Authentication authentication) {
         try {
-            User teacher = (User) authentication.getPrincipal();
+            AuthenticatedUser teacher = (AuthenticatedUser) authentication.getPrincipal();
             Optional<Assignment> assignmentOpt = assignmentService.findById(id);
             
             if (assignmentOpt.isPresent()) {
@@ -11,6 +11,8 @@ import com.assignmentmanagement.service.GoogleAuthService;
 import com.assignmentmanagement.service.UserService;
 import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
 import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -20,6 +22,8 @@ import org.springframework.web.bind.annotation.*;
 @CrossOrigin(origins = {"http://localhost:5173", "http://localhost:5174"})
 public class AuthController {
 
+    private static final Logger logger = LoggerFactory.getLogger(AuthController.class);
+
     @Autowired
     private UserService userService;
 
@@ -56,7 +60,7 @@ public class AuthController {
                 user = userService.createOAuthUser(user);
             }
 
-            String jwt = tokenProvider.generateTokenFromUsername(user.getEmail());
+            String jwt = tokenProvider.generateToken(user);
             
             return ResponseEntity.ok(new JwtResponse(jwt, user.getId(), user.getEmail(), 
                                                    user.getFirstName(), user.getLastName(), user.getRole()));
@@ -69,21 +73,18 @@ public class AuthController {
     @PostMapping("/google/callback")
     public ResponseEntity<?> googleCallback(@RequestBody GoogleCallbackRequest callbackRequest) {
         try {
-            // Debug logging to understand what we're receiving
-            System.out.println("=== GOOGLE OAUTH CALLBACK DEBUG ===");
-            System.out.println("Code: " + (callbackRequest.getCode() != null ? callbackRequest.getCode().substring(0, Math.min(callbackRequest.getCode().length(), 20)) + "..." : "null"));
-            System.out.println("Redirect URI: " + callbackRequest.getRedirectUri());
-            System.out.println("Role: " + callbackRequest.getRole());
+            logger.debug("Google OAuth callback (code present: {}, redirect URI: {}, role: {})",
+                callbackRequest.getCode() != null, callbackRequest.getRedirectUri(), callbackRequest.getRole());
             
             // Manual validation with better error messages
             if (callbackRequest.getCode() == null || callbackRequest.getCode().trim().isEmpty()) {
-                System.out.println("ERROR: Authorization code is missing or empty");
+                logger.debug("Authorization code is missing or empty");
                 return ResponseEntity.badRequest()
                     .body(new MessageResponse("Error: Authorization code is missing"));
             }
             
             if (callbackRequest.getRedirectUri() == null || callbackRequest.getRedirectUri().trim().isEmpty()) {
-                System.out.println("ERROR: Redirect URI is missing or empty");
+                logger.debug("Redirect URI is missing or empty");
                 return ResponseEntity.badRequest()
                     .body(new MessageResponse("Error: Redirect URI is missing"));
             }
@@ -103,24 +104,19 @@ public class AuthController {
             String googleId = payload.getSubject();
             String profilePictureUrl = (String) payload.get("picture");
             
-            // Debug logging to see what Google provides
-            System.out.println("Google user info:");
-            System.out.println("- Email: " + email);
-            System.out.println("- First Name: " + firstName);
-            System.out.println("- Last Name: " + lastName);
-            System.out.println("- Google ID: " + googleId);
+            logger.debug("Google user info: email={}, firstName={}, lastName={}, googleId={}", email, firstName, lastName, googleId);
             
             // Handle missing or empty names with fallbacks
             if (firstName == null || firstName.trim().isEmpty()) {
                 firstName = "Google User";
-                System.out.println("WARNING: No first name provided, using fallback: " + firstName);
+                logger.debug("No first name provided, using fallback: {}", firstName);
             } else {
                 firstName = firstName.trim();
             }
             
             if (lastName == null || lastName.trim().isEmpty()) {
                 lastName = "User";
-                System.out.println("WARNING: No last name provided, using fallback: " + lastName);
+                logger.debug("No last name provided, using fallback: {}", lastName);
             } else {
                 lastName = lastName.trim();
             }
@@ -133,42 +129,36 @@ public class AuthController {
                     try {
                         role = UserRole.valueOf(callbackRequest.getRole().toUpperCase());
                     } catch (IllegalArgumentException e) {
-                        System.out.println("WARNING: Invalid role provided: " + callbackRequest.getRole() + ", defaulting to STUDENT");
+                        logger.warn("Invalid role provided: {}, defaulting to STUDENT", callbackRequest.getRole());
                         role = UserRole.STUDENT; // Default to STUDENT if invalid role
                     }
                 } else {
                     role = UserRole.STUDENT; // Default role
                 }
                 
-                System.out.println("Creating new user with:");
-                System.out.println("- Email: " + email);
-                System.out.println("- First Name: '" + firstName + "'");
-                System.out.println("- Last Name: '" + lastName + "'");
-                System.out.println("- Role: " + role);
-                System.out.println("- Google ID: " + googleId);
-                
+                logger.debug("Creating new user: email={}, firstName='{}', lastName='{}', role={}, googleId={}",
+                    email, firstName, lastName, role, googleId);
+
                 user = new User(email, firstName, lastName, role, AuthProvider.GOOGLE, googleId, profilePictureUrl);
                 
                 try {
                     user = userService.createOAuthUser(user);
-                    System.out.println("User created successfully with ID: " + user.getId());
+                    logger.info("User created successfully with ID: {}", user.getId());
                 } catch (Exception e) {
-                    System.out.println("ERROR creating user: " + e.getMessage());
-                    e.printStackTrace();
+                    logger.error("Error creating user: {}", e.getMessage(), e);
                     return ResponseEntity.badRequest()
                         .body(new MessageResponse("Error: Failed to create user account - " + e.getMessage()));
                 }
             } else {
-                System.out.println("Existing user found with email: " + email + ", ID: " + user.getId());
+                logger.debug("Existing user found with email: {}, ID: {}", email, user.getId());
             }
 
-            String jwt = tokenProvider.generateTokenFromUsername(user.getEmail());
+            String jwt = tokenProvider.generateToken(user);
             
             return ResponseEntity.ok(new JwtResponse(jwt, user.getId(), user.getEmail(), 
                                                    user.getFirstName(), user.getLastName(), user.getRole()));
         } catch (Exception e) {
-            System.err.println("Google OAuth callback error: " + e.getMessage());
-            e.printStackTrace();
+            logger.error("Google OAuth callback error: {}", e.getMessage(), e);
             return ResponseEntity.badRequest()
                 .body(new MessageResponse("Error: OAuth callback failed - " + e.getMessage()));
         }
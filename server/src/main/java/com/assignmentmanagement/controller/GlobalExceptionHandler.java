@@ -1,5 +1,7 @@
 package com.assignmentmanagement.controller;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -13,13 +15,12 @@ import java.util.Map;
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    private static final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, Object>> handleValidationExceptions(
             MethodArgumentNotValidException ex) {
         
-        System.out.println("=== VALIDATION ERROR DEBUG ===");
-        System.out.println("Validation failed for request");
-        
         Map<String, Object> response = new HashMap<>();
         Map<String, String> errors = new HashMap<>();
         
@@ -27,7 +28,7 @@ public class GlobalExceptionHandler {
             String fieldName = ((FieldError) error).getField();
             String errorMessage = error.getDefaultMessage();
             errors.put(fieldName, errorMessage);
-            System.out.println("Field '" + fieldName + "': " + errorMessage);
+            logger.debug("Validation failed for field '{}': {}", fieldName, errorMessage);
         });
         
         response.put("message", "Validation failed");
@@ -38,10 +39,7 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Map<String, String>> handleGenericException(Exception ex) {
-        System.out.println("=== GENERIC ERROR DEBUG ===");
-        System.out.println("Exception: " + ex.getClass().getSimpleName());
-        System.out.println("Message: " + ex.getMessage());
-        ex.printStackTrace();
+        logger.error("Unhandled {}: {}", ex.getClass().getSimpleName(), ex.getMessage(), ex);
         
         Map<String, String> response = new HashMap<>();
         response.put("message", "An error occurred: " + ex.getMessage());
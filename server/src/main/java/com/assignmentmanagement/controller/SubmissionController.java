@@ -1,14 +1,27 @@
 package com.assignmentmanagement.controller;
 
+import com.assignmentmanagement.dto.AssignmentSnapshot;
+import com.assignmentmanagement.dto.BulkGradeRequest;
 import com.assignmentmanagement.dto.GradeSubmissionRequest;
+import com.assignmentmanagement.dto.SubmissionPage;
 import com.assignmentmanagement.model.*;
+import com.assignmentmanagement.security.AuthenticatedUser;
 import com.assignmentmanagement.service.AssignmentService;
+import com.assignmentmanagement.service.ColdStorageService;
+import com.assignmentmanagement.service.FileDeliveryService;
 import com.assignmentmanagement.service.FileStorageService;
+import com.assignmentmanagement.service.GradeTransferService;
+import com.assignmentmanagement.service.PageRenderService;
+import com.assignmentmanagement.service.SubmissionArchiveService;
+import com.assignmentmanagement.service.SubmissionPipeline;
 import com.assignmentmanagement.service.SubmissionService;
+import com.assignmentmanagement.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -18,11 +31,19 @@ import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 @RestController 
 @RequestMapping("/api/submissions")
@@ -38,41 +59,68 @@ public class SubmissionController {
     @Autowired
     private FileStorageService fileStorageService;
 
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private FileDeliveryService fileDeliveryService;
+
+    @Autowired
+    private SubmissionPipeline submissionPipeline;
+
+    @Autowired
+    private PageRenderService pageRenderService;
+
+    @Autowired
+    private GradeTransferService gradeTransferService;
+
+    @Autowired
+    private SubmissionArchiveService submissionArchiveService;
+
+    @Autowired
+    private ColdStorageService coldStorageService;
+
+    @Value("${file.render-cache.client-max-age-seconds:3600}")
+    private long pageCacheMaxAgeSeconds;
+
     @PostMapping("/upload")
     @PreAuthorize("hasRole('STUDENT')")
     public ResponseEntity<?> uploadSubmission(@RequestParam("file") MultipartFile file,
                                             @RequestParam("assignmentCode") String assignmentCode,
                                             Authentication authentication) {
         try {
-            User student = (User) authentication.getPrincipal();
+            AuthenticatedUser principal = (AuthenticatedUser) authentication.getPrincipal();
+            User student = userService.getUserReference(principal);
             
             // Validate assignment code and get assignment
-            Optional<Assignment> assignmentOpt = assignmentService.findByAssignmentCode(assignmentCode);
-            if (assignmentOpt.isEmpty()) {
+            Optional<AssignmentSnapshot> snapshotOpt = assignmentService.findSnapshotByCode(assignmentCode);
+            if (snapshotOpt.isEmpty()) {
                 return ResponseEntity.badRequest()
                     .body(new MessageResponse("Assignment not found with code: " + assignmentCode));
             }
 
-            Assignment assignment = assignmentOpt.get();
+            AssignmentSnapshot snapshot = snapshotOpt.get();
+            Assignment assignment = assignmentService.getAssignmentReference(snapshot.getId());
             
             // Check if student can submit
-            if (!submissionService.canStudentSubmit(assignment, student)) {
-                if (assignment.isExpired()) {
-                    return ResponseEntity.badRequest()
-                        .body(new MessageResponse("Assignment deadline has passed"));
-                } else {
-                    return ResponseEntity.badRequest()
-                        .body(new MessageResponse("You have already submitted for this assignment"));
-                }
+            MessageResponse rejection = checkCanSubmit(snapshot, assignment, student);
+            if (rejection != null) {
+                return ResponseEntity.badRequest().body(rejection);
             }
 
             // Store file
-            String filePath = fileStorageService.storeFile(file, assignmentCode, student.getEmail());
+            String filePath = fileStorageService.storeFile(file, assignmentCode, principal.getEmail());
             
             // Create submission record
-            Submission submission = submissionService.createSubmission(
-                assignment, student, filePath, file.getOriginalFilename(), file.getSize()
-            );
+            Submission submission;
+            try {
+                submission = submissionService.createSubmission(
+                    assignment, student, filePath, file.getOriginalFilename(), file.getSize()
+                );
+            } catch (RuntimeException e) {
+                fileStorageService.deleteFile(filePath);
+                throw e;
+            }
 
             Map<String, Object> response = new HashMap<>();
             response.put("message", "File uploaded successfully");
@@ -80,6 +128,69 @@ public class SubmissionController {
             response.put("fileName", file.getOriginalFilename());
             response.put("fileSize", file.getSize());
             response.put("isLateSubmission", submission.getIsLateSubmission());
+            response.put("processingStatus", submission.getProcessingStatus());
+
+            return ResponseEntity.ok(response);
+
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body(new MessageResponse("Error uploading file: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Accepts the PDF as the raw request body, so it is streamed straight to disk
+     * instead of being buffered by the multipart resolver first
+     */
+    @PostMapping(value = "/upload/stream", consumes = MediaType.APPLICATION_PDF_VALUE)
+    @PreAuthorize("hasRole('STUDENT')")
+    public ResponseEntity<?> uploadSubmissionStream(@RequestParam("assignmentCode") String assignmentCode,
+                                                  @RequestParam("filename") String filename,
+                                                  HttpServletRequest request,
+                                                  Authentication authentication) {
+        try {
+            if (request.getContentLengthLong() > fileStorageService.getMaxFileSize()) {
+                return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                    .body(new MessageResponse("File size exceeds maximum limit of 10MB"));
+            }
+
+            AuthenticatedUser principal = (AuthenticatedUser) authentication.getPrincipal();
+            User student = userService.getUserReference(principal);
+            
+            Optional<AssignmentSnapshot> snapshotOpt = assignmentService.findSnapshotByCode(assignmentCode);
+            if (snapshotOpt.isEmpty()) {
+                return ResponseEntity.badRequest()
+                    .body(new MessageResponse("Assignment not found with code: " + assignmentCode));
+            }
+
+            AssignmentSnapshot snapshot = snapshotOpt.get();
+            Assignment assignment = assignmentService.getAssignmentReference(snapshot.getId());
+            
+            MessageResponse rejection = checkCanSubmit(snapshot, assignment, student);
+            if (rejection != null) {
+                return ResponseEntity.badRequest().body(rejection);
+            }
+
+            FileStorageService.StoredFile storedFile = fileStorageService.storeStream(
+                request.getInputStream(), filename, assignmentCode, principal.getEmail());
+
+            Submission submission;
+            try {
+                submission = submissionService.createSubmission(
+                    assignment, student, storedFile.getPath(), filename, storedFile.getSize()
+                );
+            } catch (RuntimeException e) {
+                fileStorageService.deleteFile(storedFile.getPath());
+                throw e;
+            }
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("message", "File uploaded successfully");
+            response.put("submissionId", submission.getId());
+            response.put("fileName", filename);
+            response.put("fileSize", storedFile.getSize());
+            response.put("isLateSubmission", submission.getIsLateSubmission());
+            response.put("processingStatus", submission.getProcessingStatus());
 
             return ResponseEntity.ok(response);
 
@@ -89,12 +200,25 @@ public class SubmissionController {
         }
     }
 
+    private MessageResponse checkCanSubmit(AssignmentSnapshot snapshot, Assignment assignment, User student) {
+        if (snapshot.canAcceptSubmissions() && !submissionService.hasStudentSubmitted(assignment, student)) {
+            return null;
+        }
+        if (!snapshot.isActive()) {
+            return new MessageResponse("Assignment is not accepting submissions");
+        }
+        if (snapshot.isExpired()) {
+            return new MessageResponse("Assignment deadline has passed");
+        }
+        return new MessageResponse("You have already submitted for this assignment");
+    }
+
     @GetMapping("/assignment/{assignmentId}")
     @PreAuthorize("hasRole('TEACHER')")
     public ResponseEntity<?> getSubmissionsByAssignment(@PathVariable Long assignmentId, 
                                                        Authentication authentication) {
         try {
-            User teacher = (User) authentication.getPrincipal();
+            AuthenticatedUser teacher = (AuthenticatedUser) authentication.getPrincipal();
             Optional<Assignment> assignmentOpt = assignmentService.findById(assignmentId);
             
             if (assignmentOpt.isEmpty()) {
@@ -122,7 +246,7 @@ public class SubmissionController {
     @PreAuthorize("hasRole('STUDENT')")
     public ResponseEntity<?> getStudentSubmissions(Authentication authentication) {
         try {
-            User student = (User) authentication.getPrincipal();
+            User student = userService.getUserReference((AuthenticatedUser) authentication.getPrincipal());
             List<Submission> submissions = submissionService.findSubmissionsByStudent(student);
             return ResponseEntity.ok(submissions);
 
@@ -136,7 +260,7 @@ public class SubmissionController {
     @PreAuthorize("hasRole('TEACHER')")
     public ResponseEntity<?> getTeacherSubmissions(Authentication authentication) {
         try {
-            User teacher = (User) authentication.getPrincipal();
+            User teacher = userService.getUserReference((AuthenticatedUser) authentication.getPrincipal());
             List<Submission> submissions = submissionService.findSubmissionsByTeacher(teacher);
             return ResponseEntity.ok(submissions);
 
@@ -146,6 +270,79 @@ public class SubmissionController {
         }
     }
 
+    @GetMapping("/teacher/page")
+    @PreAuthorize("hasRole('TEACHER')")
+    public ResponseEntity<?> getTeacherSubmissionPage(@RequestParam(value = "cursor", required = false) String cursor,
+                                                      @RequestParam(value = "size", defaultValue = "20") int size,
+                                                      @RequestParam(value = "status", required = false) SubmissionStatus status,
+                                                      @RequestParam(value = "late", required = false) Boolean late,
+                                                      @RequestParam(value = "assignmentId", required = false) Long assignmentId,
+                                                      @RequestParam(value = "sort", defaultValue = "desc") String sort,
+                                                      Authentication authentication) {
+        try {
+            AuthenticatedUser teacher = (AuthenticatedUser) authentication.getPrincipal();
+            SubmissionPage page = submissionService.findSubmissionPage(teacher.getId(), null, assignmentId,
+                status, late, cursor, size, "asc".equalsIgnoreCase(sort));
+            return ResponseEntity.ok(page);
+
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body(new MessageResponse("Error fetching submissions: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/assignment/{assignmentId}/page")
+    @PreAuthorize("hasRole('TEACHER')")
+    public ResponseEntity<?> getAssignmentSubmissionPage(@PathVariable Long assignmentId,
+                                                         @RequestParam(value = "cursor", required = false) String cursor,
+                                                         @RequestParam(value = "size", defaultValue = "20") int size,
+                                                         @RequestParam(value = "status", required = false) SubmissionStatus status,
+                                                         @RequestParam(value = "late", required = false) Boolean late,
+                                                         @RequestParam(value = "sort", defaultValue = "desc") String sort,
+                                                         Authentication authentication) {
+        try {
+            AuthenticatedUser teacher = (AuthenticatedUser) authentication.getPrincipal();
+            Optional<Assignment> assignmentOpt = assignmentService.findById(assignmentId);
+            
+            if (assignmentOpt.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+
+            // Check if teacher owns this assignment
+            if (!assignmentOpt.get().getCreatedBy().getId().equals(teacher.getId())) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(new MessageResponse("Access denied"));
+            }
+
+            SubmissionPage page = submissionService.findSubmissionPage(teacher.getId(), null, assignmentId,
+                status, late, cursor, size, "asc".equalsIgnoreCase(sort));
+            return ResponseEntity.ok(page);
+
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body(new MessageResponse("Error fetching submissions: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/student/page")
+    @PreAuthorize("hasRole('STUDENT')")
+    public ResponseEntity<?> getStudentSubmissionPage(@RequestParam(value = "cursor", required = false) String cursor,
+                                                      @RequestParam(value = "size", defaultValue = "20") int size,
+                                                      @RequestParam(value = "status", required = false) SubmissionStatus status,
+                                                      @RequestParam(value = "sort", defaultValue = "desc") String sort,
+                                                      Authentication authentication) {
+        try {
+            AuthenticatedUser student = (AuthenticatedUser) authentication.getPrincipal();
+            SubmissionPage page = submissionService.findSubmissionPage(null, student.getId(), null,
+                status, null, cursor, size, "asc".equalsIgnoreCase(sort));
+            return ResponseEntity.ok(page);
+
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body(new MessageResponse("Error fetching submissions: " + e.getMessage()));
+        }
+    }
+
     @PostMapping("/{id}/grade")
     @PreAuthorize("hasRole('TEACHER')")
     public ResponseEntity<?> gradeSubmission(@PathVariable Long id,
@@ -154,7 +351,7 @@ public class SubmissionController {
                                            @RequestParam(value = "correctedFile", required = false) MultipartFile correctedFile,
                                            Authentication authentication) {
         try {
-            User teacher = (User) authentication.getPrincipal();
+            AuthenticatedUser teacher = (AuthenticatedUser) authentication.getPrincipal();
             Optional<Submission> submissionOpt = submissionService.findById(id);
             
             if (submissionOpt.isEmpty()) {
@@ -184,7 +381,7 @@ public class SubmissionController {
             }
 
             Submission gradedSubmission = submissionService.gradeSubmissionWithFile(
-                id, marks, feedback, correctedFile, teacher
+                id, marks, feedback, correctedFile, userService.getUserReference(teacher)
             );
 
             return ResponseEntity.ok(gradedSubmission);
@@ -195,98 +392,154 @@ public class SubmissionController {
         }
     }
 
-    @PutMapping("/{id}/status")
+    @PostMapping("/assignment/{assignmentId}/grades")
     @PreAuthorize("hasRole('TEACHER')")
-    public ResponseEntity<?> updateSubmissionStatus(@PathVariable Long id,
-                                                  @RequestParam SubmissionStatus status,
+    public ResponseEntity<?> gradeSubmissionsBulk(@PathVariable Long assignmentId,
+                                                  @Valid @RequestBody BulkGradeRequest request,
                                                   Authentication authentication) {
         try {
-            User teacher = (User) authentication.getPrincipal();
-            Optional<Submission> submissionOpt = submissionService.findById(id);
-            
-            if (submissionOpt.isEmpty()) {
+            AuthenticatedUser teacher = (AuthenticatedUser) authentication.getPrincipal();
+            Optional<Assignment> assignmentOpt = assignmentService.findById(assignmentId);
+
+            if (assignmentOpt.isEmpty()) {
                 return ResponseEntity.notFound().build();
             }
 
-            Submission submission = submissionOpt.get();
-            
-            // Check if teacher owns the assignment
-            if (!submission.getAssignment().getCreatedBy().getId().equals(teacher.getId())) {
+            // One ownership check covers every submission in the request
+            if (!assignmentOpt.get().getCreatedBy().getId().equals(teacher.getId())) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN)
                     .body(new MessageResponse("Access denied"));
             }
 
-            submissionService.updateSubmissionStatus(id, status);
-            return ResponseEntity.ok(new MessageResponse("Status updated successfully"));
+            SubmissionService.BulkGradeResult result = submissionService.gradeSubmissionsBulk(
+                assignmentId, request.getGrades(), userService.getUserReference(teacher));
+            return ResponseEntity.ok(result);
 
         } catch (Exception e) {
             return ResponseEntity.badRequest()
-                .body(new MessageResponse("Error updating status: " + e.getMessage()));
+                .body(new MessageResponse("Error grading submissions: " + e.getMessage()));
         }
     }
 
-    @GetMapping("/download/{id}")
-    public ResponseEntity<?> downloadSubmission(@PathVariable Long id, Authentication authentication) {
+    /**
+     * Every submitted and corrected file of the assignment as one ZIP. An interrupted download
+     * resumes with the last entry it received: afterSubmission is the id its folder ends in and
+     * afterCorrected is set if it was the corrected_ file.
+     */
+    @GetMapping("/assignment/{assignmentId}/archive")
+    @PreAuthorize("hasRole('TEACHER')")
+    public ResponseEntity<?> downloadArchive(@PathVariable Long assignmentId,
+                                             @RequestParam(required = false) Long afterSubmission,
+                                             @RequestParam(defaultValue = "false") boolean afterCorrected,
+                                             HttpServletResponse response,
+                                             Authentication authentication) {
         try {
-            User currentUser = (User) authentication.getPrincipal();
-            Optional<Submission> submissionOpt = submissionService.findById(id);
-            
-            if (submissionOpt.isEmpty()) {
+            AuthenticatedUser teacher = (AuthenticatedUser) authentication.getPrincipal();
+            Optional<Assignment> assignmentOpt = assignmentService.findById(assignmentId);
+
+            if (assignmentOpt.isEmpty()) {
                 return ResponseEntity.notFound().build();
             }
+            if (!assignmentOpt.get().getCreatedBy().getId().equals(teacher.getId())) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(new MessageResponse("Access denied"));
+            }
 
-            Submission submission = submissionOpt.get();
-            
-            // Check access permissions
-            boolean hasAccess = false;
-            if (currentUser.getRole() == UserRole.TEACHER && 
-                submission.getAssignment().getCreatedBy().getId().equals(currentUser.getId())) {
-                hasAccess = true;
-            } else if (currentUser.getRole() == UserRole.STUDENT && 
-                       submission.getStudent().getId().equals(currentUser.getId())) {
-                hasAccess = true;
+            String cursor = afterSubmission != null ? afterSubmission + (afterCorrected ? "-corrected" : "") : null;
+            String filename = assignmentOpt.get().getAssignmentCode() + "-submissions"
+                + (cursor != null ? "-after-" + cursor : "") + ".zip";
+            response.setContentType("application/zip");
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"");
+            if (cursor != null) {
+                response.setHeader("X-Archive-Resumed-After", cursor);
             }
+            submissionArchiveService.writeArchive(assignmentId, afterSubmission, afterCorrected,
+                response.getOutputStream());
+            return null;
 
-            if (!hasAccess) {
+        } catch (Exception e) {
+            if (response.isCommitted()) {
+                // Usually the client went away; it can resume after its last complete entry
+                return null;
+            }
+            response.reset();
+            return ResponseEntity.badRequest()
+                .body(new MessageResponse("Error creating archive: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/assignment/{assignmentId}/grades/export")
+    @PreAuthorize("hasRole('TEACHER')")
+    public ResponseEntity<?> exportGrades(@PathVariable Long assignmentId,
+                                          HttpServletResponse response,
+                                          Authentication authentication) {
+        try {
+            AuthenticatedUser teacher = (AuthenticatedUser) authentication.getPrincipal();
+            Optional<Assignment> assignmentOpt = assignmentService.findById(assignmentId);
+
+            if (assignmentOpt.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            if (!assignmentOpt.get().getCreatedBy().getId().equals(teacher.getId())) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN)
                     .body(new MessageResponse("Access denied"));
             }
 
-            // Determine which file to serve - corrected if available, otherwise original
-            String filePathToServe = submission.getFilePath();
-            String filenameToServe = submission.getOriginalFilename();
-            
-            if (submission.getCorrectedFilePath() != null && !submission.getCorrectedFilePath().isEmpty()) {
-                filePathToServe = submission.getCorrectedFilePath();
-                filenameToServe = submission.getCorrectedFilename();
+            response.setContentType("text/csv;charset=UTF-8");
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"" + assignmentOpt.get().getAssignmentCode() + "-grades.csv\"");
+            Writer writer = response.getWriter();
+            // Byte order mark so spreadsheet applications read the file as UTF-8
+            writer.write('\uFEFF');
+            gradeTransferService.exportGrades(assignmentId, writer);
+            return null;
+
+        } catch (Exception e) {
+            if (response.isCommitted()) {
+                return null;
             }
+            response.reset();
+            return ResponseEntity.badRequest()
+                .body(new MessageResponse("Error exporting grades: " + e.getMessage()));
+        }
+    }
 
-            // Load file
-            Path filePath = fileStorageService.loadFile(filePathToServe);
-            Resource resource = new UrlResource(filePath.toUri());
+    @PostMapping("/assignment/{assignmentId}/grades/import")
+    @PreAuthorize("hasRole('TEACHER')")
+    public ResponseEntity<?> importGrades(@PathVariable Long assignmentId,
+                                          @RequestParam("file") MultipartFile file,
+                                          Authentication authentication) {
+        try {
+            AuthenticatedUser teacher = (AuthenticatedUser) authentication.getPrincipal();
+            Optional<Assignment> assignmentOpt = assignmentService.findById(assignmentId);
 
-            if (!resource.exists()) {
+            if (assignmentOpt.isEmpty()) {
                 return ResponseEntity.notFound().build();
             }
+            if (!assignmentOpt.get().getCreatedBy().getId().equals(teacher.getId())) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(new MessageResponse("Access denied"));
+            }
 
-            return ResponseEntity.ok()
-                .contentType(MediaType.APPLICATION_PDF)
-                .header(HttpHeaders.CONTENT_DISPOSITION, 
-                       "attachment; filename=\"" + filenameToServe + "\"")
-                .body(resource);
+            try (Reader reader = new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8)) {
+                GradeTransferService.ImportResult result = gradeTransferService.importGrades(
+                    assignmentId, reader, userService.getUserReference(teacher));
+                return ResponseEntity.ok(result);
+            }
 
         } catch (Exception e) {
             return ResponseEntity.badRequest()
-                .body(new MessageResponse("Error downloading file: " + e.getMessage()));
+                .body(new MessageResponse("Error importing grades: " + e.getMessage()));
         }
     }
 
-    @GetMapping("/view/{id}")
-    public ResponseEntity<?> viewSubmission(@PathVariable Long id, 
-                                           @RequestParam(required = false) String token,
-                                           Authentication authentication) {
+    @PutMapping("/{id}/status")
+    @PreAuthorize("hasRole('TEACHER')")
+    public ResponseEntity<?> updateSubmissionStatus(@PathVariable Long id,
+                                                  @RequestParam SubmissionStatus status,
+                                                  Authentication authentication) {
         try {
-            User currentUser = (User) authentication.getPrincipal();
+            AuthenticatedUser teacher = (AuthenticatedUser) authentication.getPrincipal();
             Optional<Submission> submissionOpt = submissionService.findById(id);
             
             if (submissionOpt.isEmpty()) {
@@ -295,47 +548,190 @@ public class SubmissionController {
 
             Submission submission = submissionOpt.get();
             
-            // Check access permissions
-            boolean hasAccess = false;
-            if (currentUser.getRole() == UserRole.TEACHER && 
-                submission.getAssignment().getCreatedBy().getId().equals(currentUser.getId())) {
-                hasAccess = true;
-            } else if (currentUser.getRole() == UserRole.STUDENT && 
-                       submission.getStudent().getId().equals(currentUser.getId())) {
-                hasAccess = true;
-            }
-
-            if (!hasAccess) {
+            // Check if teacher owns the assignment
+            if (!submission.getAssignment().getCreatedBy().getId().equals(teacher.getId())) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN)
                     .body(new MessageResponse("Access denied"));
             }
 
-            // Determine which file to serve - corrected if available, otherwise original
-            String filePathToServe = submission.getFilePath();
-            String filenameToServe = submission.getOriginalFilename();
-            
-            if (submission.getCorrectedFilePath() != null && !submission.getCorrectedFilePath().isEmpty()) {
-                filePathToServe = submission.getCorrectedFilePath();
-                filenameToServe = submission.getCorrectedFilename();
+            submissionService.updateSubmissionStatus(id, status);
+            return ResponseEntity.ok(new MessageResponse("Status updated successfully"));
+
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body(new MessageResponse("Error updating status: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/download/{id}")
+    public ResponseEntity<?> downloadSubmission(@PathVariable Long id, 
+                                               HttpServletRequest request,
+                                               HttpServletResponse response,
+                                               Authentication authentication) {
+        try {
+            return serveSubmissionFile(id, false, request, response, authentication);
+        } catch (Exception e) {
+            if (response.isCommitted()) {
+                return null;
+            }
+            return ResponseEntity.badRequest()
+                .body(new MessageResponse("Error downloading file: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/view/{id}")
+    public ResponseEntity<?> viewSubmission(@PathVariable Long id, 
+                                           @RequestParam(required = false) String token,
+                                           HttpServletRequest request,
+                                           HttpServletResponse response,
+                                           Authentication authentication) {
+        try {
+            response.setHeader("X-Frame-Options", "SAMEORIGIN");
+            return serveSubmissionFile(id, true, request, response, authentication);
+        } catch (Exception e) {
+            if (response.isCommitted()) {
+                return null;
             }
+            return ResponseEntity.badRequest()
+                .body(new MessageResponse("Error viewing file: " + e.getMessage()));
+        }
+    }
 
-            // Load file
-            Path filePath = fileStorageService.loadFile(filePathToServe);
-            Resource resource = new UrlResource(filePath.toUri());
+    /**
+     * Writes the submission's file straight to the response; returns null once it has been written
+     */
+    private ResponseEntity<?> serveSubmissionFile(Long id, boolean inline, HttpServletRequest request,
+                                                  HttpServletResponse response, Authentication authentication)
+            throws IOException {
+        AuthenticatedUser currentUser = (AuthenticatedUser) authentication.getPrincipal();
+        Optional<Submission> submissionOpt = submissionService.findById(id);
+        
+        if (submissionOpt.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        Submission submission = submissionOpt.get();
+        
+        // Check access permissions
+        if (!canAccessSubmission(currentUser, submission)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                .body(new MessageResponse("Access denied"));
+        }
+
+        // Determine which file to serve - corrected if available, otherwise original
+        String filePathToServe = submission.getFilePath();
+        String filenameToServe = submission.getOriginalFilename();
+        
+        if (submission.getCorrectedFilePath() != null && !submission.getCorrectedFilePath().isEmpty()) {
+            filePathToServe = submission.getCorrectedFilePath();
+            filenameToServe = submission.getCorrectedFilename();
+        }
+
+        // Remote backends hand the download to the client so the bytes skip this server
+        Optional<URI> redirect = fileStorageService.presignedDownloadUrl(filePathToServe, filenameToServe, inline);
+        if (redirect.isPresent()) {
+            return ResponseEntity.status(HttpStatus.FOUND).location(redirect.get()).build();
+        }
+
+        Path filePath = fileStorageService.loadFile(filePathToServe);
+        try {
+            fileDeliveryService.serve(filePath, filenameToServe, inline, request, response);
+        } catch (NoSuchFileException e) {
+            return ResponseEntity.notFound().build();
+        }
+        return null;
+    }
+
+    @GetMapping("/{id}/pages/{page}/thumbnail")
+    public ResponseEntity<?> getPageThumbnail(@PathVariable Long id,
+                                              @PathVariable int page,
+                                              @RequestParam(defaultValue = "false") boolean original,
+                                              Authentication authentication) {
+        return renderSubmissionPage(id, page, original, PageRenderService.Variant.THUMBNAIL, authentication);
+    }
+
+    @GetMapping("/{id}/pages/{page}/image")
+    public ResponseEntity<?> getPageImage(@PathVariable Long id,
+                                          @PathVariable int page,
+                                          @RequestParam(defaultValue = "false") boolean original,
+                                          Authentication authentication) {
+        return renderSubmissionPage(id, page, original, PageRenderService.Variant.PAGE, authentication);
+    }
 
-            if (!resource.exists()) {
+    /**
+     * Serves a cached page image of the corrected file when there is one, unless the original is asked for
+     */
+    private ResponseEntity<?> renderSubmissionPage(Long id, int page, boolean original,
+                                                   PageRenderService.Variant variant, Authentication authentication) {
+        try {
+            AuthenticatedUser currentUser = (AuthenticatedUser) authentication.getPrincipal();
+            Optional<Submission> submissionOpt = submissionService.findById(id);
+
+            if (submissionOpt.isEmpty()) {
                 return ResponseEntity.notFound().build();
             }
 
+            Submission submission = submissionOpt.get();
+            if (!canAccessSubmission(currentUser, submission)) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(new MessageResponse("Access denied"));
+            }
+
+            String filePath = submission.getFilePath();
+            if (!original && submission.getCorrectedFilePath() != null && !submission.getCorrectedFilePath().isEmpty()) {
+                filePath = submission.getCorrectedFilePath();
+            }
+
+            PageRenderService.RenderedPage rendered = pageRenderService.getPage(filePath, page, variant);
+            // The ETag follows the stored file; the default URL switches to the corrected file once graded,
+            // so it is revalidated each time (a cheap 304) while the original's pages never change
+            CacheControl cacheControl = original
+                ? CacheControl.maxAge(pageCacheMaxAgeSeconds, TimeUnit.SECONDS).cachePrivate()
+                : CacheControl.noCache().cachePrivate();
             return ResponseEntity.ok()
-                .contentType(MediaType.APPLICATION_PDF)
-                .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + filenameToServe + "\"")
-                .header("X-Frame-Options", "SAMEORIGIN")
-                .body(resource);
+                .contentType(MediaType.IMAGE_JPEG)
+                .eTag(rendered.getETag())
+                .cacheControl(cacheControl)
+                .body(rendered.getData());
 
+        } catch (NoSuchFileException e) {
+            return ResponseEntity.notFound().build();
         } catch (Exception e) {
             return ResponseEntity.badRequest()
-                .body(new MessageResponse("Error viewing file: " + e.getMessage()));
+                .body(new MessageResponse("Error rendering page: " + e.getMessage()));
+        }
+    }
+
+    private boolean canAccessSubmission(AuthenticatedUser currentUser, Submission submission) {
+        if (currentUser.getRole() == UserRole.TEACHER) {
+            return submission.getAssignment().getCreatedBy().getId().equals(currentUser.getId());
+        }
+        return currentUser.getRole() == UserRole.STUDENT
+            && submission.getStudent().getId().equals(currentUser.getId());
+    }
+
+    @GetMapping("/pipeline/metrics")
+    @PreAuthorize("hasRole('TEACHER')")
+    public ResponseEntity<?> getPipelineMetrics() {
+        try {
+            return ResponseEntity.ok(submissionPipeline.getMetrics());
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body(new MessageResponse("Error fetching pipeline metrics: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * File counts, original and stored bytes and the compression ratio for each storage tier
+     */
+    @GetMapping("/storage/tiers")
+    @PreAuthorize("hasRole('TEACHER')")
+    public ResponseEntity<?> getStorageTiers() {
+        try {
+            return ResponseEntity.ok(coldStorageService.getTierSummary());
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body(new MessageResponse("Error fetching storage tiers: " + e.getMessage()));
         }
     }
 
@@ -343,7 +739,7 @@ public class SubmissionController {
     @PreAuthorize("hasRole('TEACHER')")
     public ResponseEntity<?> getSubmissionStats(Authentication authentication) {
         try {
-            User teacher = (User) authentication.getPrincipal();
+            User teacher = userService.getUserReference((AuthenticatedUser) authentication.getPrincipal());
             SubmissionService.SubmissionStats stats = submissionService.getSubmissionStats(teacher);
             return ResponseEntity.ok(stats);
 
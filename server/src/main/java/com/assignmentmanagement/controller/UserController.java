@@ -7,7 +7,10 @@ import com.assignmentmanagement.model.User;
 import com.assignmentmanagement.model.UserRole;
 import com.assignmentmanagement.security.JwtTokenProvider;
 import com.assignmentmanagement.service.UserService;
+import io.jsonwebtoken.Claims;
 import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -17,6 +20,8 @@ import org.springframework.web.bind.annotation.*;
 @CrossOrigin(origins = {"http://localhost:5173", "http://localhost:5174"})
 public class UserController {
 
+    private static final Logger logger = LoggerFactory.getLogger(UserController.class);
+
     @Autowired
     private UserService userService;
 
@@ -33,11 +38,12 @@ public class UserController {
                 token = authHeader.substring(7);
             }
             
-            if (token == null || !tokenProvider.validateToken(token)) {
+            Claims claims = tokenProvider.parseToken(token);
+            if (claims == null) {
                 return ResponseEntity.badRequest().body(new MessageResponse("Invalid or missing token"));
             }
 
-            String email = tokenProvider.getUsernameFromToken(token);
+            String email = claims.getSubject();
             User user = userService.findByEmail(email).orElse(null);
             
             if (user == null) {
@@ -52,11 +58,10 @@ public class UserController {
             // Update the user's role
             try {
                 UserRole newRole = UserRole.valueOf(updateRoleRequest.getRole().toUpperCase());
-                user.setRole(newRole);
-                user = userService.updateUser(user);
+                user = userService.changeRole(user, newRole);
 
                 // Generate a new token with the updated role
-                String newToken = tokenProvider.generateTokenFromUsername(user.getEmail());
+                String newToken = tokenProvider.generateToken(user);
 
                 return ResponseEntity.ok(new JwtResponse(newToken, user.getId(), user.getEmail(),
                         user.getFirstName(), user.getLastName(), user.getRole()));
@@ -64,9 +69,7 @@ public class UserController {
                 return ResponseEntity.badRequest().body(new MessageResponse("Invalid role: " + updateRoleRequest.getRole()));
             }
         } catch (Exception e) {
-            System.out.println("=== UPDATE ROLE ERROR ===");
-            System.out.println("Exception: " + e.getMessage());
-            e.printStackTrace();
+            logger.error("Error updating user role: {}", e.getMessage(), e);
             return ResponseEntity.badRequest().body(new MessageResponse("Error updating user role"));
         }
     }
@@ -0,0 +1,48 @@
+package com.assignmentmanagement.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class AnnotationBatchRequest {
+
+    // Annotation version the client last saw; the batch is rejected if it has moved on
+    @NotNull
+    private Long baseVersion;
+
+    // Entries without an id are created, the rest are updated in place
+    @Valid
+    private List<AnnotationDto> upserts = new ArrayList<>();
+
+    private List<Long> deletes = new ArrayList<>();
+
+    // Constructors
+    public AnnotationBatchRequest() {}
+
+    // Getters and Setters
+    public Long getBaseVersion() {
+        return baseVersion;
+    }
+
+    public void setBaseVersion(Long baseVersion) {
+        this.baseVersion = baseVersion;
+    }
+
+    public List<AnnotationDto> getUpserts() {
+        return upserts;
+    }
+
+    public void setUpserts(List<AnnotationDto> upserts) {
+        this.upserts = upserts != null ? upserts : new ArrayList<>();
+    }
+
+    public List<Long> getDeletes() {
+        return deletes;
+    }
+
+    public void setDeletes(List<Long> deletes) {
+        this.deletes = deletes != null ? deletes : new ArrayList<>();
+    }
+}
@@ -0,0 +1,135 @@
+package com.assignmentmanagement.dto;
+
+import com.assignmentmanagement.model.Annotation;
+import com.assignmentmanagement.model.AnnotationType;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+
+public class AnnotationDto {
+
+    // Null for annotations created in this batch
+    private Long id;
+
+    @NotNull
+    @Min(1)
+    private Integer pageNumber;
+
+    @NotNull
+    private Float x;
+
+    @NotNull
+    private Float y;
+
+    @NotNull
+    @PositiveOrZero
+    private Float width;
+
+    @NotNull
+    @PositiveOrZero
+    private Float height;
+
+    @NotNull
+    private AnnotationType annotationType;
+
+    private String content;
+
+    @Size(max = 255)
+    private String color;
+
+    // Constructors
+    public AnnotationDto() {}
+
+    public AnnotationDto(Annotation annotation) {
+        this(annotation.getId(), annotation.getPageNumber(), annotation.getXCoordinate(),
+             annotation.getYCoordinate(), annotation.getWidth(), annotation.getHeight(),
+             annotation.getAnnotationType(), annotation.getContent(), annotation.getColor());
+    }
+
+    public AnnotationDto(Long id, Integer pageNumber, Float x, Float y, Float width, Float height,
+                         AnnotationType annotationType, String content, String color) {
+        this.id = id;
+        this.pageNumber = pageNumber;
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+        this.annotationType = annotationType;
+        this.content = content;
+        this.color = color;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Integer getPageNumber() {
+        return pageNumber;
+    }
+
+    public void setPageNumber(Integer pageNumber) {
+        this.pageNumber = pageNumber;
+    }
+
+    public Float getX() {
+        return x;
+    }
+
+    public void setX(Float x) {
+        this.x = x;
+    }
+
+    public Float getY() {
+        return y;
+    }
+
+    public void setY(Float y) {
+        this.y = y;
+    }
+
+    public Float getWidth() {
+        return width;
+    }
+
+    public void setWidth(Float width) {
+        this.width = width;
+    }
+
+    public Float getHeight() {
+        return height;
+    }
+
+    public void setHeight(Float height) {
+        this.height = height;
+    }
+
+    public AnnotationType getAnnotationType() {
+        return annotationType;
+    }
+
+    public void setAnnotationType(AnnotationType annotationType) {
+        this.annotationType = annotationType;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+    }
+
+    public String getColor() {
+        return color;
+    }
+
+    public void setColor(String color) {
+        this.color = color;
+    }
+}
@@ -37,6 +37,47 @@ public class AssignmentResponse {
         this.submissionCount = assignment.getSubmissionCount();
     }
 
+    public AssignmentResponse(Assignment assignment, long submissionCount) {
+        this(assignment.getId(), assignment.getTitle(), assignment.getDescription(), assignment.getAssignmentCode(),
+             assignment.getCreatedBy().getFirstName(), assignment.getCreatedBy().getLastName(),
+             assignment.getCreatedBy().getId(), assignment.getDeadline(), assignment.getMaxMarks(),
+             assignment.getInstructions(), assignment.getCreatedAt(), submissionCount);
+    }
+
+    // Projection constructor used by AssignmentRepository.findAssignmentSummariesByTeacher
+    public AssignmentResponse(Long id, String title, String description, String assignmentCode,
+                              String creatorFirstName, String creatorLastName, Long createdById,
+                              LocalDateTime deadline, Integer maxMarks, String instructions,
+                              LocalDateTime createdAt, Long submissionCount) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.assignmentCode = assignmentCode;
+        this.createdByName = creatorFirstName + " " + creatorLastName;
+        this.createdById = createdById;
+        this.deadline = deadline;
+        this.maxMarks = maxMarks;
+        this.instructions = instructions;
+        this.createdAt = createdAt;
+        this.isExpired = LocalDateTime.now().isAfter(deadline);
+        this.submissionCount = submissionCount != null ? submissionCount : 0;
+    }
+
+    public AssignmentResponse(AssignmentSnapshot snapshot) {
+        this.id = snapshot.getId();
+        this.title = snapshot.getTitle();
+        this.description = snapshot.getDescription();
+        this.assignmentCode = snapshot.getAssignmentCode();
+        this.createdByName = snapshot.getCreatedByName();
+        this.createdById = snapshot.getCreatedById();
+        this.deadline = snapshot.getDeadline();
+        this.maxMarks = snapshot.getMaxMarks();
+        this.instructions = snapshot.getInstructions();
+        this.createdAt = snapshot.getCreatedAt();
+        this.isExpired = snapshot.isExpired();
+        this.submissionCount = snapshot.getSubmissionCount();
+    }
+
     // Getters and Setters
     public Long getId() {
         return id;
@@ -0,0 +1,88 @@
+package com.assignmentmanagement.dto;
+
+import com.assignmentmanagement.model.Assignment;
+
+import java.time.LocalDateTime;
+
+/**
+ * Immutable, detached copy of an assignment used by the assignment code index.
+ * Holds everything needed to answer a code lookup without touching Hibernate.
+ */
+public final class AssignmentSnapshot {
+
+    private final Long id;
+    private final String title;
+    private final String description;
+    private final String assignmentCode;
+    private final String createdByName;
+    private final Long createdById;
+    private final LocalDateTime deadline;
+    private final Integer maxMarks;
+    private final String instructions;
+    private final LocalDateTime createdAt;
+    private final boolean active;
+    private final long submissionCount;
+
+    public AssignmentSnapshot(Long id, String title, String description, String assignmentCode,
+                              String createdByName, Long createdById, LocalDateTime deadline,
+                              Integer maxMarks, String instructions, LocalDateTime createdAt,
+                              boolean active, long submissionCount) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.assignmentCode = assignmentCode;
+        this.createdByName = createdByName;
+        this.createdById = createdById;
+        this.deadline = deadline;
+        this.maxMarks = maxMarks;
+        this.instructions = instructions;
+        this.createdAt = createdAt;
+        this.active = active;
+        this.submissionCount = submissionCount;
+    }
+
+    public static AssignmentSnapshot of(Assignment assignment, long submissionCount) {
+        return new AssignmentSnapshot(
+            assignment.getId(),
+            assignment.getTitle(),
+            assignment.getDescription(),
+            assignment.getAssignmentCode(),
+            assignment.getCreatedBy().getFullName(),
+            assignment.getCreatedBy().getId(),
+            assignment.getDeadline(),
+            assignment.getMaxMarks(),
+            assignment.getInstructions(),
+            assignment.getCreatedAt(),
+            Boolean.TRUE.equals(assignment.getIsActive()),
+            submissionCount
+        );
+    }
+
+    public AssignmentSnapshot withSubmissionCount(long newSubmissionCount) {
+        return new AssignmentSnapshot(id, title, description, assignmentCode, createdByName, createdById,
+            deadline, maxMarks, instructions, createdAt, active, Math.max(0, newSubmissionCount));
+    }
+
+    // Getters
+    public Long getId() { return id; }
+    public String getTitle() { return title; }
+    public String getDescription() { return description; }
+    public String getAssignmentCode() { return assignmentCode; }
+    public String getCreatedByName() { return createdByName; }
+    public Long getCreatedById() { return createdById; }
+    public LocalDateTime getDeadline() { return deadline; }
+    public Integer getMaxMarks() { return maxMarks; }
+    public String getInstructions() { return instructions; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public boolean isActive() { return active; }
+    public long getSubmissionCount() { return submissionCount; }
+
+    // Helper methods
+    public boolean isExpired() {
+        return LocalDateTime.now().isAfter(deadline);
+    }
+
+    public boolean canAcceptSubmissions() {
+        return active && !isExpired();
+    }
+}
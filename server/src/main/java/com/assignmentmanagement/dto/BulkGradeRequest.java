@@ -0,0 +1,65 @@
+package com.assignmentmanagement.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BulkGradeRequest {
+
+    // Items are validated one by one so a bad row fails alone instead of the whole request
+    @NotEmpty
+    private List<Item> grades = new ArrayList<>();
+
+    // Constructors
+    public BulkGradeRequest() {}
+
+    // Getters and Setters
+    public List<Item> getGrades() {
+        return grades;
+    }
+
+    public void setGrades(List<Item> grades) {
+        this.grades = grades;
+    }
+
+    public static class Item {
+        private Long submissionId;
+        private Integer marks;
+        private String feedback;
+
+        // Constructors
+        public Item() {}
+
+        public Item(Long submissionId, Integer marks, String feedback) {
+            this.submissionId = submissionId;
+            this.marks = marks;
+            this.feedback = feedback;
+        }
+
+        // Getters and Setters
+        public Long getSubmissionId() {
+            return submissionId;
+        }
+
+        public void setSubmissionId(Long submissionId) {
+            this.submissionId = submissionId;
+        }
+
+        public Integer getMarks() {
+            return marks;
+        }
+
+        public void setMarks(Integer marks) {
+            this.marks = marks;
+        }
+
+        public String getFeedback() {
+            return feedback;
+        }
+
+        public void setFeedback(String feedback) {
+            this.feedback = feedback;
+        }
+    }
+}
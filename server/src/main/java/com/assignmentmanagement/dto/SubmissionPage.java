@@ -0,0 +1,65 @@
+package com.assignmentmanagement.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated submission listing.
+ * The cursor encodes the (submittedAt, id) of the last row and is passed back to fetch the next page.
+ */
+public class SubmissionPage {
+
+    private final List<SubmissionSummary> items;
+    private final String nextCursor;
+    private final boolean hasMore;
+
+    public SubmissionPage(List<SubmissionSummary> items, String nextCursor, boolean hasMore) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+
+    public static String encodeCursor(LocalDateTime submittedAt, Long id) {
+        String raw = submittedAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor produced by encodeCursor
+     * @return the cursor position, or null if the cursor is blank
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public static Cursor decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new Cursor(LocalDateTime.parse(raw.substring(0, separator)), Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    // Getters
+    public List<SubmissionSummary> getItems() { return items; }
+    public String getNextCursor() { return nextCursor; }
+    public boolean isHasMore() { return hasMore; }
+
+    // Inner class for a decoded cursor position
+    public static class Cursor {
+        private final LocalDateTime submittedAt;
+        private final Long id;
+
+        public Cursor(LocalDateTime submittedAt, Long id) {
+            this.submittedAt = submittedAt;
+            this.id = id;
+        }
+
+        public LocalDateTime getSubmittedAt() { return submittedAt; }
+        public Long getId() { return id; }
+    }
+}
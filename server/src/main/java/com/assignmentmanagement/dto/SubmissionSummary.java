@@ -0,0 +1,78 @@
+package com.assignmentmanagement.dto;
+
+import com.assignmentmanagement.model.SubmissionStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Flat read model of a submission with its assignment, student and grader details.
+ * Built directly by constructor-expression queries, so no entity or lazy association is loaded.
+ */
+public class SubmissionSummary {
+
+    private final Long id;
+    private final Long assignmentId;
+    private final String assignmentTitle;
+    private final String assignmentCode;
+    private final Integer assignmentMaxMarks;
+    private final Long studentId;
+    private final String studentName;
+    private final String studentEmail;
+    private final String originalFilename;
+    private final Long fileSize;
+    private final LocalDateTime submittedAt;
+    private final SubmissionStatus status;
+    private final Integer marksObtained;
+    private final String feedback;
+    private final String correctedFilename;
+    private final Boolean isLateSubmission;
+    private final LocalDateTime gradedAt;
+    private final String gradedByName;
+
+    public SubmissionSummary(Long id, Long assignmentId, String assignmentTitle, String assignmentCode,
+                             Integer assignmentMaxMarks, Long studentId, String studentFirstName,
+                             String studentLastName, String studentEmail, String originalFilename,
+                             Long fileSize, LocalDateTime submittedAt, SubmissionStatus status,
+                             Integer marksObtained, String feedback, String correctedFilename,
+                             Boolean isLateSubmission, LocalDateTime gradedAt,
+                             String gradedByFirstName, String gradedByLastName) {
+        this.id = id;
+        this.assignmentId = assignmentId;
+        this.assignmentTitle = assignmentTitle;
+        this.assignmentCode = assignmentCode;
+        this.assignmentMaxMarks = assignmentMaxMarks;
+        this.studentId = studentId;
+        this.studentName = studentFirstName + " " + studentLastName;
+        this.studentEmail = studentEmail;
+        this.originalFilename = originalFilename;
+        this.fileSize = fileSize;
+        this.submittedAt = submittedAt;
+        this.status = status;
+        this.marksObtained = marksObtained;
+        this.feedback = feedback;
+        this.correctedFilename = correctedFilename;
+        this.isLateSubmission = isLateSubmission;
+        this.gradedAt = gradedAt;
+        this.gradedByName = gradedByFirstName != null ? gradedByFirstName + " " + gradedByLastName : null;
+    }
+
+    // Getters
+    public Long getId() { return id; }
+    public Long getAssignmentId() { return assignmentId; }
+    public String getAssignmentTitle() { return assignmentTitle; }
+    public String getAssignmentCode() { return assignmentCode; }
+    public Integer getAssignmentMaxMarks() { return assignmentMaxMarks; }
+    public Long getStudentId() { return studentId; }
+    public String getStudentName() { return studentName; }
+    public String getStudentEmail() { return studentEmail; }
+    public String getOriginalFilename() { return originalFilename; }
+    public Long getFileSize() { return fileSize; }
+    public LocalDateTime getSubmittedAt() { return submittedAt; }
+    public SubmissionStatus getStatus() { return status; }
+    public Integer getMarksObtained() { return marksObtained; }
+    public String getFeedback() { return feedback; }
+    public String getCorrectedFilename() { return correctedFilename; }
+    public Boolean getIsLateSubmission() { return isLateSubmission; }
+    public LocalDateTime getGradedAt() { return gradedAt; }
+    public String getGradedByName() { return gradedByName; }
+}
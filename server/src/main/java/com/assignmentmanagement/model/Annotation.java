@@ -6,7 +6,11 @@ import jakarta.validation.constraints.NotNull;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "annotations")
+@Table(name = "annotations", indexes = {
+    // Serves page-windowed reads in display order without a sort
+    @Index(name = "idx_annotations_submission_page_y", columnList = "submission_id, page_number, y_coordinate"),
+    @Index(name = "idx_annotations_submission_changed", columnList = "submission_id, changed_version")
+})
 public class Annotation {
 
     @Id
@@ -51,6 +55,10 @@ public class Annotation {
     @JoinColumn(name = "created_by")
     private User createdBy;
 
+    // Submission annotation version of the last change to this row; drives delta sync
+    @Column(name = "changed_version")
+    private Long changedVersion;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
@@ -177,6 +185,14 @@ public class Annotation {
         this.createdBy = createdBy;
     }
 
+    public Long getChangedVersion() {
+        return changedVersion;
+    }
+
+    public void setChangedVersion(Long changedVersion) {
+        this.changedVersion = changedVersion;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -0,0 +1,80 @@
+package com.assignmentmanagement.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDateTime;
+
+/**
+ * Marker left behind by a deleted annotation so delta sync can report the removal
+ */
+@Entity
+@Table(name = "annotation_tombstones", indexes = {
+    @Index(name = "idx_annotation_tombstones_submission_version", columnList = "submission_id, deleted_version")
+})
+public class AnnotationTombstone {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotNull
+    @Column(name = "submission_id")
+    private Long submissionId;
+
+    @NotNull
+    @Column(name = "annotation_id")
+    private Long annotationId;
+
+    // Submission annotation version that removed the annotation
+    @NotNull
+    @Column(name = "deleted_version")
+    private Long deletedVersion;
+
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt;
+
+    // Constructors
+    public AnnotationTombstone() {}
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getSubmissionId() {
+        return submissionId;
+    }
+
+    public void setSubmissionId(Long submissionId) {
+        this.submissionId = submissionId;
+    }
+
+    public Long getAnnotationId() {
+        return annotationId;
+    }
+
+    public void setAnnotationId(Long annotationId) {
+        this.annotationId = annotationId;
+    }
+
+    public Long getDeletedVersion() {
+        return deletedVersion;
+    }
+
+    public void setDeletedVersion(Long deletedVersion) {
+        this.deletedVersion = deletedVersion;
+    }
+
+    public LocalDateTime getDeletedAt() {
+        return deletedAt;
+    }
+
+    public void setDeletedAt(LocalDateTime deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+}
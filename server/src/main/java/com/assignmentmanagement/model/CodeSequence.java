@@ -0,0 +1,63 @@
+package com.assignmentmanagement.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "code_sequences")
+public class CodeSequence {
+
+    @Id
+    @Column(length = 50)
+    private String name;
+
+    @NotNull
+    @Column(name = "next_value")
+    private Long nextValue = 0L;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public CodeSequence() {}
+
+    public CodeSequence(String name) {
+        this.name = name;
+        this.nextValue = 0L;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    // Lifecycle methods
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Long getNextValue() {
+        return nextValue;
+    }
+
+    public void setNextValue(Long nextValue) {
+        this.nextValue = nextValue;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
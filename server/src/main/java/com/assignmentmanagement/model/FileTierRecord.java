@@ -0,0 +1,118 @@
+package com.assignmentmanagement.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "file_tiers")
+public class FileTierRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Logical path as stored on the submission; cold files live at this path plus ".gz"
+    @NotNull
+    @Column(name = "file_path", length = 500, unique = true)
+    private String filePath;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    private StorageTier tier = StorageTier.HOT;
+
+    @NotNull
+    @Column(name = "original_size")
+    private Long originalSize;
+
+    @NotNull
+    @Column(name = "stored_size")
+    private Long storedSize;
+
+    // SHA-256 of the original bytes, checked against the decompressed output before the original is removed
+    @Column(length = 64)
+    private String sha256;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public FileTierRecord() {}
+
+    public FileTierRecord(String filePath, StorageTier tier, Long originalSize, Long storedSize, String sha256) {
+        this.filePath = filePath;
+        this.tier = tier;
+        this.originalSize = originalSize;
+        this.storedSize = storedSize;
+        this.sha256 = sha256;
+    }
+
+    // Lifecycle methods
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    public double getCompressionRatio() {
+        return originalSize != null && originalSize > 0 ? (double) storedSize / originalSize : 1.0;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getFilePath() {
+        return filePath;
+    }
+
+    public void setFilePath(String filePath) {
+        this.filePath = filePath;
+    }
+
+    public StorageTier getTier() {
+        return tier;
+    }
+
+    public void setTier(StorageTier tier) {
+        this.tier = tier;
+    }
+
+    public Long getOriginalSize() {
+        return originalSize;
+    }
+
+    public void setOriginalSize(Long originalSize) {
+        this.originalSize = originalSize;
+    }
+
+    public Long getStoredSize() {
+        return storedSize;
+    }
+
+    public void setStoredSize(Long storedSize) {
+        this.storedSize = storedSize;
+    }
+
+    public String getSha256() {
+        return sha256;
+    }
+
+    public void setSha256(String sha256) {
+        this.sha256 = sha256;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,8 @@
+package com.assignmentmanagement.model;
+
+public enum JobStatus {
+    QUEUED,
+    RUNNING,
+    DONE,
+    FAILED
+}
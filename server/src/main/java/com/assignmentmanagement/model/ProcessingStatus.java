@@ -0,0 +1,8 @@
+package com.assignmentmanagement.model;
+
+public enum ProcessingStatus {
+    PENDING,
+    PROCESSING,
+    COMPLETED,
+    FAILED
+}
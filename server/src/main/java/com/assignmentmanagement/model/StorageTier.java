@@ -0,0 +1,6 @@
+package com.assignmentmanagement.model;
+
+public enum StorageTier {
+    HOT,
+    COLD
+}
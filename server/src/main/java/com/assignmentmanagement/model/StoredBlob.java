@@ -0,0 +1,69 @@
+package com.assignmentmanagement.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "stored_blobs")
+public class StoredBlob {
+
+    // Hex-encoded SHA-256 of the file contents
+    @Id
+    @Column(length = 64)
+    private String hash;
+
+    @NotNull
+    @Column(name = "size")
+    private Long size;
+
+    @NotNull
+    @Column(name = "ref_count")
+    private Integer refCount = 0;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public StoredBlob() {}
+
+    // Lifecycle methods
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public String getHash() {
+        return hash;
+    }
+
+    public void setHash(String hash) {
+        this.hash = hash;
+    }
+
+    public Long getSize() {
+        return size;
+    }
+
+    public void setSize(Long size) {
+        this.size = size;
+    }
+
+    public Integer getRefCount() {
+        return refCount;
+    }
+
+    public void setRefCount(Integer refCount) {
+        this.refCount = refCount;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -12,6 +12,10 @@ import java.util.List;
 @Entity
 @Table(name = "submissions", uniqueConstraints = {
     @UniqueConstraint(columnNames = {"assignment_id", "student_id"})
+}, indexes = {
+    @Index(name = "idx_submissions_assignment_submitted", columnList = "assignment_id, submitted_at, id"),
+    @Index(name = "idx_submissions_student_submitted", columnList = "student_id, submitted_at, id"),
+    @Index(name = "idx_submissions_submitted", columnList = "submitted_at, id")
 })
 public class Submission {
 
@@ -31,8 +35,10 @@ public class Submission {
     @JsonIgnore
     private User student;
 
+    // Columns with their own targeted UPDATE writers are left out of entity updates, so saving a
+    // submission loaded earlier cannot write a stale value back over a concurrent change
     @NotBlank
-    @Column(name = "file_path", length = 500)
+    @Column(name = "file_path", length = 500, updatable = false)
     private String filePath;
 
     @NotBlank
@@ -55,7 +61,7 @@ public class Submission {
     @Column(columnDefinition = "TEXT")
     private String feedback;
 
-    @Column(name = "corrected_file_path", length = 500)
+    @Column(name = "corrected_file_path", length = 500, updatable = false)
     private String correctedFilePath;
 
     @Column(name = "corrected_filename")
@@ -72,6 +78,21 @@ public class Submission {
     @Column(name = "is_late_submission")
     private Boolean isLateSubmission = false;
 
+    // Progress of the post-upload pipeline; null for submissions made before it existed
+    @Enumerated(EnumType.STRING)
+    @Column(name = "processing_status", updatable = false)
+    private ProcessingStatus processingStatus;
+
+    @Column(name = "page_count", updatable = false)
+    private Integer pageCount;
+
+    @Column(name = "content_hash", length = 64, updatable = false)
+    private String contentHash;
+
+    // Bumped by every annotation batch; clients send it back for optimistic concurrency
+    @Column(name = "annotation_version", updatable = false)
+    private Long annotationVersion = 0L;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
@@ -94,6 +115,7 @@ public class Submission {
         this.fileSize = fileSize;
         this.submittedAt = LocalDateTime.now();
         this.isLateSubmission = LocalDateTime.now().isAfter(assignment.getDeadline());
+        this.processingStatus = ProcessingStatus.PENDING;
         this.createdAt = LocalDateTime.now();
         this.updatedAt = LocalDateTime.now();
     }
@@ -241,6 +263,38 @@ public class Submission {
         this.isLateSubmission = isLateSubmission;
     }
 
+    public ProcessingStatus getProcessingStatus() {
+        return processingStatus;
+    }
+
+    public void setProcessingStatus(ProcessingStatus processingStatus) {
+        this.processingStatus = processingStatus;
+    }
+
+    public Integer getPageCount() {
+        return pageCount;
+    }
+
+    public void setPageCount(Integer pageCount) {
+        this.pageCount = pageCount;
+    }
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
+    public Long getAnnotationVersion() {
+        return annotationVersion != null ? annotationVersion : 0L;
+    }
+
+    public void setAnnotationVersion(Long annotationVersion) {
+        this.annotationVersion = annotationVersion;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -0,0 +1,103 @@
+package com.assignmentmanagement.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDateTime;
+
+/**
+ * Precomputed submission counts for one assignment, kept current by SubmissionStatsService
+ */
+@Entity
+@Table(name = "submission_stats", indexes = {
+    @Index(name = "idx_submission_stats_teacher", columnList = "teacher_id")
+})
+public class SubmissionStatsRecord {
+
+    @Id
+    @Column(name = "assignment_id")
+    private Long assignmentId;
+
+    @NotNull
+    @Column(name = "teacher_id")
+    private Long teacherId;
+
+    @NotNull
+    @Column(name = "total_count")
+    private Long totalCount = 0L;
+
+    @NotNull
+    @Column(name = "pending_count")
+    private Long pendingCount = 0L;
+
+    @NotNull
+    @Column(name = "graded_count")
+    private Long gradedCount = 0L;
+
+    @NotNull
+    @Column(name = "late_count")
+    private Long lateCount = 0L;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public SubmissionStatsRecord() {}
+
+    // Getters and Setters
+    public Long getAssignmentId() {
+        return assignmentId;
+    }
+
+    public void setAssignmentId(Long assignmentId) {
+        this.assignmentId = assignmentId;
+    }
+
+    public Long getTeacherId() {
+        return teacherId;
+    }
+
+    public void setTeacherId(Long teacherId) {
+        this.teacherId = teacherId;
+    }
+
+    public Long getTotalCount() {
+        return totalCount;
+    }
+
+    public void setTotalCount(Long totalCount) {
+        this.totalCount = totalCount;
+    }
+
+    public Long getPendingCount() {
+        return pendingCount;
+    }
+
+    public void setPendingCount(Long pendingCount) {
+        this.pendingCount = pendingCount;
+    }
+
+    public Long getGradedCount() {
+        return gradedCount;
+    }
+
+    public void setGradedCount(Long gradedCount) {
+        this.gradedCount = gradedCount;
+    }
+
+    public Long getLateCount() {
+        return lateCount;
+    }
+
+    public void setLateCount(Long lateCount) {
+        this.lateCount = lateCount;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
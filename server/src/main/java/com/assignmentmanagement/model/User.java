@@ -63,6 +63,10 @@ public class User implements UserDetails {
     @Column(name = "is_active")
     private Boolean isActive = true;
 
+    @Column(name = "token_version")
+    @JsonIgnore
+    private Integer tokenVersion = 0;
+
     @OneToMany(mappedBy = "createdBy", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JsonIgnore
     private List<Assignment> createdAssignments;
@@ -216,6 +220,14 @@ public class User implements UserDetails {
         this.isActive = isActive;
     }
 
+    public Integer getTokenVersion() {
+        return tokenVersion;
+    }
+
+    public void setTokenVersion(Integer tokenVersion) {
+        this.tokenVersion = tokenVersion;
+    }
+
     public List<Assignment> getCreatedAssignments() {
         return createdAssignments;
     }
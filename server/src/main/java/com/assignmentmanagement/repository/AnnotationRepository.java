@@ -1,19 +1,28 @@
 package com.assignmentmanagement.repository;
 
+import com.assignmentmanagement.dto.AnnotationDto;
 import com.assignmentmanagement.model.Annotation;
 import com.assignmentmanagement.model.AnnotationType;
 import com.assignmentmanagement.model.Submission;
 import com.assignmentmanagement.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface AnnotationRepository extends JpaRepository<Annotation, Long> {
     
+    // Projection without createdBy, so no user rows are loaded
+    String VIEW_SELECT = "SELECT new com.assignmentmanagement.dto.AnnotationDto(a.id, a.pageNumber, " +
+                         "a.xCoordinate, a.yCoordinate, a.width, a.height, a.annotationType, a.content, a.color) " +
+                         "FROM Annotation a ";
+    
     List<Annotation> findBySubmission(Submission submission);
     
     List<Annotation> findBySubmissionAndPageNumber(Submission submission, Integer pageNumber);
@@ -32,4 +41,20 @@ public interface AnnotationRepository extends JpaRepository<Annotation, Long> {
     long countAnnotationsBySubmissionAndType(@Param("submission") Submission submission, @Param("type") AnnotationType type);
     
     void deleteBySubmission(Submission submission);
-}
\ No newline at end of file
+    
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Annotation a WHERE a.submission.id = :submissionId AND a.id IN :ids")
+    int deleteBySubmissionIdAndIdIn(@Param("submissionId") Long submissionId, @Param("ids") Collection<Long> ids);
+    
+    @Query(VIEW_SELECT + "WHERE a.submission.id = :submissionId AND a.pageNumber BETWEEN :fromPage AND :toPage " +
+           "ORDER BY a.pageNumber ASC, a.yCoordinate ASC")
+    List<AnnotationDto> findViewsByPageRange(@Param("submissionId") Long submissionId,
+                                             @Param("fromPage") Integer fromPage,
+                                             @Param("toPage") Integer toPage);
+    
+    @Query(VIEW_SELECT + "WHERE a.submission.id = :submissionId AND a.changedVersion > :sinceVersion " +
+           "ORDER BY a.pageNumber ASC, a.yCoordinate ASC")
+    List<AnnotationDto> findViewsChangedSince(@Param("submissionId") Long submissionId,
+                                              @Param("sinceVersion") Long sinceVersion);
+}
@@ -0,0 +1,17 @@
+package com.assignmentmanagement.repository;
+
+import com.assignmentmanagement.model.AnnotationTombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface AnnotationTombstoneRepository extends JpaRepository<AnnotationTombstone, Long> {
+    
+    @Query("SELECT t.annotationId FROM AnnotationTombstone t " +
+           "WHERE t.submissionId = :submissionId AND t.deletedVersion > :sinceVersion")
+    List<Long> findDeletedIdsSince(@Param("submissionId") Long submissionId, @Param("sinceVersion") Long sinceVersion);
+}
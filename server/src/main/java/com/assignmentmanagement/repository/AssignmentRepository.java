@@ -1,5 +1,6 @@
 package com.assignmentmanagement.repository;
 
+import com.assignmentmanagement.dto.AssignmentResponse;
 import com.assignmentmanagement.model.Assignment;
 import com.assignmentmanagement.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -8,6 +9,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,6 +20,9 @@ public interface AssignmentRepository extends JpaRepository<Assignment, Long> {
     
     boolean existsByAssignmentCode(String assignmentCode);
     
+    @Query("SELECT a.assignmentCode FROM Assignment a WHERE a.assignmentCode IN :codes")
+    List<String> findExistingCodes(@Param("codes") Collection<String> codes);
+    
     List<Assignment> findByCreatedBy(User createdBy);
     
     List<Assignment> findByCreatedByAndIsActiveTrue(User createdBy);
@@ -25,6 +30,14 @@ public interface AssignmentRepository extends JpaRepository<Assignment, Long> {
     @Query("SELECT a FROM Assignment a WHERE a.createdBy = :teacher AND a.isActive = true ORDER BY a.createdAt DESC")
     List<Assignment> findActiveAssignmentsByTeacher(@Param("teacher") User teacher);
     
+    @Query("SELECT new com.assignmentmanagement.dto.AssignmentResponse(" +
+           "a.id, a.title, a.description, a.assignmentCode, u.firstName, u.lastName, u.id, " +
+           "a.deadline, a.maxMarks, a.instructions, a.createdAt, " +
+           "(SELECT COUNT(s) FROM Submission s WHERE s.assignment = a)) " +
+           "FROM Assignment a JOIN a.createdBy u " +
+           "WHERE u.id = :teacherId AND a.isActive = true ORDER BY a.createdAt DESC")
+    List<AssignmentResponse> findAssignmentSummariesByTeacher(@Param("teacherId") Long teacherId);
+    
     @Query("SELECT a FROM Assignment a WHERE a.deadline > :currentTime AND a.isActive = true")
     List<Assignment> findActiveAssignments(@Param("currentTime") LocalDateTime currentTime);
     
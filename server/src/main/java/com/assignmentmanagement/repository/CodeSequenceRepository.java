@@ -0,0 +1,19 @@
+package com.assignmentmanagement.repository;
+
+import com.assignmentmanagement.model.CodeSequence;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface CodeSequenceRepository extends JpaRepository<CodeSequence, String> {
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM CodeSequence c WHERE c.name = :name")
+    Optional<CodeSequence> findByNameForUpdate(@Param("name") String name);
+}
@@ -0,0 +1,28 @@
+package com.assignmentmanagement.repository;
+
+import com.assignmentmanagement.model.FileTierRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface FileTierRecordRepository extends JpaRepository<FileTierRecord, Long> {
+    
+    @Query("SELECT r.filePath FROM FileTierRecord r WHERE r.filePath IN :paths")
+    List<String> findRecordedPaths(@Param("paths") Collection<String> paths);
+    
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM FileTierRecord r WHERE r.filePath = :filePath")
+    int deleteByFilePath(@Param("filePath") String filePath);
+    
+    // Rows of (tier, file count, original bytes, stored bytes)
+    @Query("SELECT r.tier, COUNT(r), SUM(r.originalSize), SUM(r.storedSize) FROM FileTierRecord r GROUP BY r.tier")
+    List<Object[]> summarizeByTier();
+}
@@ -0,0 +1,30 @@
+package com.assignmentmanagement.repository;
+
+import com.assignmentmanagement.model.StoredBlob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface StoredBlobRepository extends JpaRepository<StoredBlob, String> {
+    
+    // Creates the blob row or takes another reference on it in one statement
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO stored_blobs (hash, size, ref_count, created_at) VALUES (:hash, :size, 1, NOW()) " +
+                   "ON DUPLICATE KEY UPDATE ref_count = ref_count + 1", nativeQuery = true)
+    int acquire(@Param("hash") String hash, @Param("size") long size);
+    
+    @Transactional
+    @Modifying
+    @Query("UPDATE StoredBlob b SET b.refCount = b.refCount - 1 WHERE b.hash = :hash AND b.refCount > 0")
+    int release(@Param("hash") String hash);
+    
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM StoredBlob b WHERE b.hash = :hash AND b.refCount <= 0")
+    int deleteIfUnreferenced(@Param("hash") String hash);
+}
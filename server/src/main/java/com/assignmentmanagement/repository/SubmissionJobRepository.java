@@ -0,0 +1,56 @@
+package com.assignmentmanagement.repository;
+
+import com.assignmentmanagement.model.SubmissionJob;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface SubmissionJobRepository extends JpaRepository<SubmissionJob, Long> {
+    
+    @Query("SELECT j.id FROM SubmissionJob j WHERE j.status = com.assignmentmanagement.model.JobStatus.QUEUED " +
+           "AND j.availableAt <= :now ORDER BY j.id")
+    List<Long> findClaimableIds(@Param("now") LocalDateTime now, Pageable limit);
+    
+    // Only one node can move a job from QUEUED to RUNNING
+    @Transactional
+    @Modifying
+    @Query("UPDATE SubmissionJob j SET j.status = com.assignmentmanagement.model.JobStatus.RUNNING, " +
+           "j.leaseExpiresAt = :leaseExpiresAt, j.attempts = j.attempts + 1, j.updatedAt = :now " +
+           "WHERE j.id = :id AND j.status = com.assignmentmanagement.model.JobStatus.QUEUED")
+    int claim(@Param("id") Long id, @Param("leaseExpiresAt") LocalDateTime leaseExpiresAt, @Param("now") LocalDateTime now);
+    
+    // Jobs whose worker died mid-run go back to the queue once their lease runs out, unless out of attempts
+    @Transactional
+    @Modifying
+    @Query("UPDATE SubmissionJob j SET j.status = com.assignmentmanagement.model.JobStatus.QUEUED, " +
+           "j.availableAt = :now, j.updatedAt = :now " +
+           "WHERE j.status = com.assignmentmanagement.model.JobStatus.RUNNING AND j.leaseExpiresAt < :now " +
+           "AND j.attempts < :maxAttempts")
+    int requeueExpiredLeases(@Param("now") LocalDateTime now, @Param("maxAttempts") int maxAttempts);
+    
+    // Rows of (jobId, submissionId) for expired leases that have used up their attempts
+    @Query("SELECT j.id, j.submissionId FROM SubmissionJob j " +
+           "WHERE j.status = com.assignmentmanagement.model.JobStatus.RUNNING AND j.leaseExpiresAt < :now " +
+           "AND j.attempts >= :maxAttempts")
+    List<Object[]> findExhaustedExpiredLeases(@Param("now") LocalDateTime now, @Param("maxAttempts") int maxAttempts);
+    
+    // Conditional on the lease still being expired, so a job that finished meanwhile is left alone
+    @Transactional
+    @Modifying
+    @Query("UPDATE SubmissionJob j SET j.status = com.assignmentmanagement.model.JobStatus.FAILED, " +
+           "j.lastError = :error, j.updatedAt = :now " +
+           "WHERE j.id = :id AND j.status = com.assignmentmanagement.model.JobStatus.RUNNING AND j.leaseExpiresAt < :now")
+    int failExpiredLease(@Param("id") Long id, @Param("error") String error, @Param("now") LocalDateTime now);
+    
+    // Rows of (status, count)
+    @Query("SELECT j.status, COUNT(j) FROM SubmissionJob j GROUP BY j.status")
+    List<Object[]> countByStatus();
+}
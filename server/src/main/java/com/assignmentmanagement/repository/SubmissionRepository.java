@@ -1,38 +1,65 @@
 package com.assignmentmanagement.repository;
 
+import com.assignmentmanagement.dto.SubmissionSummary;
 import com.assignmentmanagement.model.Assignment;
+import com.assignmentmanagement.model.ProcessingStatus;
 import com.assignmentmanagement.model.Submission;
 import com.assignmentmanagement.model.SubmissionStatus;
 import com.assignmentmanagement.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface SubmissionRepository extends JpaRepository<Submission, Long> {
     
+    String SUMMARY_SELECT = "SELECT new com.assignmentmanagement.dto.SubmissionSummary(" +
+        "s.id, a.id, a.title, a.assignmentCode, a.maxMarks, st.id, st.firstName, st.lastName, st.email, " +
+        "s.originalFilename, s.fileSize, s.submittedAt, s.status, s.marksObtained, s.feedback, " +
+        "s.correctedFilename, s.isLateSubmission, s.gradedAt, g.firstName, g.lastName) " +
+        "FROM Submission s JOIN s.assignment a JOIN s.student st LEFT JOIN s.gradedBy g ";
+    
+    // Loads the associations read by Submission's JSON getters in the same statement
+    String DETAIL_FETCH = "SELECT s FROM Submission s JOIN FETCH s.assignment a JOIN FETCH s.student " +
+        "LEFT JOIN FETCH s.gradedBy ";
+    
+    String PAGE_FILTER = "WHERE (:teacherId IS NULL OR a.createdBy.id = :teacherId) " +
+        "AND (:studentId IS NULL OR st.id = :studentId) " +
+        "AND (:assignmentId IS NULL OR a.id = :assignmentId) " +
+        "AND (:status IS NULL OR s.status = :status) " +
+        "AND (:late IS NULL OR s.isLateSubmission = :late) ";
+    
     Optional<Submission> findByAssignmentAndStudent(Assignment assignment, User student);
     
     List<Submission> findByAssignment(Assignment assignment);
     
     List<Submission> findByStudent(User student);
     
-    List<Submission> findByStatus(SubmissionStatus status);
+    @Query(DETAIL_FETCH + "WHERE s.status = :status")
+    List<Submission> findByStatus(@Param("status") SubmissionStatus status);
     
     List<Submission> findByAssignmentAndStatus(Assignment assignment, SubmissionStatus status);
     
-    @Query("SELECT s FROM Submission s WHERE s.assignment = :assignment ORDER BY s.submittedAt ASC")
+    @Query(DETAIL_FETCH + "WHERE s.assignment = :assignment ORDER BY s.submittedAt ASC")
     List<Submission> findByAssignmentOrderBySubmittedAt(@Param("assignment") Assignment assignment);
     
-    @Query("SELECT s FROM Submission s WHERE s.student = :student ORDER BY s.submittedAt DESC")
+    @Query(DETAIL_FETCH + "WHERE s.student = :student ORDER BY s.submittedAt DESC")
     List<Submission> findByStudentOrderBySubmittedAtDesc(@Param("student") User student);
     
-    @Query("SELECT s FROM Submission s WHERE s.assignment.createdBy = :teacher ORDER BY s.submittedAt DESC")
+    @Query(DETAIL_FETCH + "WHERE a.createdBy = :teacher ORDER BY s.submittedAt DESC")
     List<Submission> findSubmissionsByTeacher(@Param("teacher") User teacher);
     
     @Query("SELECT COUNT(s) FROM Submission s WHERE s.assignment = :assignment")
@@ -41,7 +68,7 @@ public interface SubmissionRepository extends JpaRepository<Submission, Long> {
     @Query("SELECT COUNT(s) FROM Submission s WHERE s.assignment = :assignment AND s.status = :status")
     long countSubmissionsByAssignmentAndStatus(@Param("assignment") Assignment assignment, @Param("status") SubmissionStatus status);
     
-    @Query("SELECT s FROM Submission s WHERE s.assignment.createdBy = :teacher AND s.submittedAt BETWEEN :startDate AND :endDate")
+    @Query(DETAIL_FETCH + "WHERE a.createdBy = :teacher AND s.submittedAt BETWEEN :startDate AND :endDate")
     List<Submission> findSubmissionsByTeacherAndDateRange(
         @Param("teacher") User teacher, 
         @Param("startDate") LocalDateTime startDate, 
@@ -54,8 +81,125 @@ public interface SubmissionRepository extends JpaRepository<Submission, Long> {
     @Query("SELECT AVG(s.marksObtained) FROM Submission s WHERE s.student = :student AND s.marksObtained IS NOT NULL")
     Double getAverageMarksByStudent(@Param("student") User student);
     
-    @Query("SELECT s FROM Submission s WHERE s.isLateSubmission = true AND s.assignment.createdBy = :teacher")
+    @Query(DETAIL_FETCH + "WHERE s.isLateSubmission = true AND a.createdBy = :teacher")
     List<Submission> findLateSubmissionsByTeacher(@Param("teacher") User teacher);
     
     boolean existsByAssignmentAndStudent(Assignment assignment, User student);
-}
\ No newline at end of file
+    
+    // Keyset pagination on (submittedAt, id); pass PageRequest.of(0, size) as the limit
+    @Query(SUMMARY_SELECT + PAGE_FILTER +
+           "AND (:cursorTime IS NULL OR s.submittedAt < :cursorTime " +
+           "OR (s.submittedAt = :cursorTime AND s.id < :cursorId)) " +
+           "ORDER BY s.submittedAt DESC, s.id DESC")
+    List<SubmissionSummary> findSummaryPageDescending(
+        @Param("teacherId") Long teacherId,
+        @Param("studentId") Long studentId,
+        @Param("assignmentId") Long assignmentId,
+        @Param("status") SubmissionStatus status,
+        @Param("late") Boolean late,
+        @Param("cursorTime") LocalDateTime cursorTime,
+        @Param("cursorId") Long cursorId,
+        Pageable limit
+    );
+    
+    @Query(SUMMARY_SELECT + PAGE_FILTER +
+           "AND (:cursorTime IS NULL OR s.submittedAt > :cursorTime " +
+           "OR (s.submittedAt = :cursorTime AND s.id > :cursorId)) " +
+           "ORDER BY s.submittedAt ASC, s.id ASC")
+    List<SubmissionSummary> findSummaryPageAscending(
+        @Param("teacherId") Long teacherId,
+        @Param("studentId") Long studentId,
+        @Param("assignmentId") Long assignmentId,
+        @Param("status") SubmissionStatus status,
+        @Param("late") Boolean late,
+        @Param("cursorTime") LocalDateTime cursorTime,
+        @Param("cursorId") Long cursorId,
+        Pageable limit
+    );
+    
+    // Rows of (id, filePath, correctedFilePath, assignmentCode) for file migrations
+    @Query("SELECT s.id, s.filePath, s.correctedFilePath, a.assignmentCode FROM Submission s JOIN s.assignment a " +
+           "WHERE s.id > :afterId ORDER BY s.id")
+    List<Object[]> findFilePathsAfter(@Param("afterId") Long afterId, Pageable limit);
+    
+    @Transactional
+    @Modifying
+    @Query("UPDATE Submission s SET s.correctedFilePath = :path WHERE s.id = :id")
+    int setCorrectedFilePath(@Param("id") Long id, @Param("path") String path);
+    
+    // Rows of (id, studentFirstName, studentLastName, originalFilename, filePath, correctedFilename,
+    // correctedFilePath, submittedAt) for an assignment's submission archive
+    @Query("SELECT s.id, st.firstName, st.lastName, s.originalFilename, s.filePath, s.correctedFilename, " +
+           "s.correctedFilePath, s.submittedAt FROM Submission s JOIN s.student st " +
+           "WHERE s.assignment.id = :assignmentId AND s.id > :afterId ORDER BY s.id")
+    List<Object[]> findArchiveRowsAfter(@Param("assignmentId") Long assignmentId, @Param("afterId") Long afterId,
+                                        Pageable limit);
+    
+    // Conditional on the old value so a concurrent regrade is never overwritten
+    @Transactional
+    @Modifying
+    @Query("UPDATE Submission s SET s.filePath = :newPath WHERE s.id = :id AND s.filePath = :oldPath")
+    int updateFilePath(@Param("id") Long id, @Param("oldPath") String oldPath, @Param("newPath") String newPath);
+    
+    @Transactional
+    @Modifying
+    @Query("UPDATE Submission s SET s.correctedFilePath = :newPath WHERE s.id = :id AND s.correctedFilePath = :oldPath")
+    int updateCorrectedFilePath(@Param("id") Long id, @Param("oldPath") String oldPath, @Param("newPath") String newPath);
+    
+    // Rows of (id, filePath, correctedFilePath) for submissions whose assignment closed before the cutoff
+    @Query("SELECT s.id, s.filePath, s.correctedFilePath FROM Submission s JOIN s.assignment a " +
+           "WHERE a.deadline < :cutoff AND s.id > :afterId ORDER BY s.id")
+    List<Object[]> findFilePathsClosedBefore(@Param("cutoff") LocalDateTime cutoff, @Param("afterId") Long afterId,
+                                             Pageable limit);
+    
+    // Pipeline updates touch only their own columns so they never overwrite a concurrent grade
+    @Transactional
+    @Modifying
+    @Query("UPDATE Submission s SET s.processingStatus = :status WHERE s.id = :id")
+    int updateProcessingStatus(@Param("id") Long id, @Param("status") ProcessingStatus status);
+    
+    @Transactional
+    @Modifying
+    @Query("UPDATE Submission s SET s.pageCount = :pageCount WHERE s.id = :id")
+    int updatePageCount(@Param("id") Long id, @Param("pageCount") Integer pageCount);
+    
+    @Transactional
+    @Modifying
+    @Query("UPDATE Submission s SET s.contentHash = :contentHash WHERE s.id = :id")
+    int updateContentHash(@Param("id") Long id, @Param("contentHash") String contentHash);
+    
+    // Rows written before the column existed hold null, which counts as version 0
+    @Transactional
+    @Modifying
+    @Query("UPDATE Submission s SET s.annotationVersion = COALESCE(s.annotationVersion, 0) + 1 " +
+           "WHERE s.id = :id AND COALESCE(s.annotationVersion, 0) = :expectedVersion")
+    int incrementAnnotationVersion(@Param("id") Long id, @Param("expectedVersion") Long expectedVersion);
+    
+    @Query("SELECT COALESCE(s.annotationVersion, 0) FROM Submission s WHERE s.id = :id")
+    Optional<Long> findAnnotationVersion(@Param("id") Long id);
+    
+    // Native so the status is always read from the locked row, never from an entity already in the
+    // persistence context; a locking read also sees the latest committed value, not the snapshot
+    @Query(value = "SELECT status FROM submissions WHERE id = :id FOR UPDATE", nativeQuery = true)
+    Optional<String> lockStatusById(@Param("id") Long id);
+    
+    @Query("SELECT s.assignment.assignmentCode FROM Submission s WHERE s.id = :id")
+    Optional<String> findAssignmentCodeById(@Param("id") Long id);
+    
+    // Row of (assignment owner id, student id, annotation version), read without loading the entities
+    @Query("SELECT s.assignment.createdBy.id, s.student.id, COALESCE(s.annotationVersion, 0) " +
+           "FROM Submission s WHERE s.id = :id")
+    List<Object[]> findOwnersAndAnnotationVersion(@Param("id") Long id);
+    
+    @Query("SELECT s.id, s.status FROM Submission s WHERE s.assignment.id = :assignmentId AND s.id IN :ids")
+    List<Object[]> findStatusesByAssignmentAndIdIn(@Param("assignmentId") Long assignmentId, @Param("ids") Collection<Long> ids);
+    
+    // MySQL streams rows one at a time only with this fetch size; callers must close the stream
+    // inside a read-only transaction
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(SUMMARY_SELECT + "WHERE a.id = :assignmentId ORDER BY st.lastName ASC, st.firstName ASC, s.id ASC")
+    Stream<SubmissionSummary> streamSummariesByAssignment(@Param("assignmentId") Long assignmentId);
+}
@@ -0,0 +1,57 @@
+package com.assignmentmanagement.repository;
+
+import com.assignmentmanagement.model.SubmissionStatsRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface SubmissionStatsRepository extends JpaRepository<SubmissionStatsRecord, Long> {
+    
+    // Adds the deltas to the assignment's row, creating it (with the assignment's teacher) on first use
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO submission_stats (assignment_id, teacher_id, total_count, pending_count, graded_count, " +
+                   "late_count, updated_at) " +
+                   "SELECT a.id, a.created_by, :total, :pending, :graded, :late, NOW() FROM assignments a WHERE a.id = :assignmentId " +
+                   "ON DUPLICATE KEY UPDATE total_count = total_count + VALUES(total_count), " +
+                   "pending_count = pending_count + VALUES(pending_count), " +
+                   "graded_count = graded_count + VALUES(graded_count), " +
+                   "late_count = late_count + VALUES(late_count), updated_at = VALUES(updated_at)", nativeQuery = true)
+    int adjust(@Param("assignmentId") Long assignmentId, @Param("total") long total, @Param("pending") long pending,
+               @Param("graded") long graded, @Param("late") long late);
+    
+    // One row of (total, pending, graded, late) summed over the teacher's assignments
+    @Query("SELECT COALESCE(SUM(r.totalCount), 0), COALESCE(SUM(r.pendingCount), 0), " +
+           "COALESCE(SUM(r.gradedCount), 0), COALESCE(SUM(r.lateCount), 0) " +
+           "FROM SubmissionStatsRecord r WHERE r.teacherId = :teacherId")
+    List<Object[]> sumByTeacher(@Param("teacherId") Long teacherId);
+    
+    // Recounts the rows of a range of assignments from the submissions table
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO submission_stats (assignment_id, teacher_id, total_count, pending_count, graded_count, " +
+                   "late_count, updated_at) " +
+                   "SELECT a.id, a.created_by, COUNT(s.id), COALESCE(SUM(s.status = 'PENDING'), 0), " +
+                   "COALESCE(SUM(s.status = 'COMPLETED'), 0), COALESCE(SUM(s.is_late_submission = 1), 0), NOW() " +
+                   "FROM assignments a LEFT JOIN submissions s ON s.assignment_id = a.id " +
+                   "WHERE a.id BETWEEN :fromId AND :toId GROUP BY a.id, a.created_by " +
+                   "ON DUPLICATE KEY UPDATE teacher_id = VALUES(teacher_id), total_count = VALUES(total_count), " +
+                   "pending_count = VALUES(pending_count), graded_count = VALUES(graded_count), " +
+                   "late_count = VALUES(late_count), updated_at = VALUES(updated_at)", nativeQuery = true)
+    int recount(@Param("fromId") Long fromId, @Param("toId") Long toId);
+    
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM submission_stats WHERE assignment_id NOT IN (SELECT id FROM assignments)",
+           nativeQuery = true)
+    int deleteOrphaned();
+    
+    @Query("SELECT COALESCE(MAX(a.id), 0) FROM Assignment a")
+    Long findMaxAssignmentId();
+}
@@ -2,8 +2,11 @@ package com.assignmentmanagement.repository;
 
 import com.assignmentmanagement.model.User;
 import com.assignmentmanagement.model.UserRole;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -29,4 +32,12 @@ public interface UserRepository extends JpaRepository<User, Long> {
     
     @Query("SELECT COUNT(u) FROM User u WHERE u.role = :role AND u.isActive = true")
     long countActiveUsersByRole(@Param("role") UserRole role);
+    
+    @Query("SELECT u.id, u.tokenVersion, u.isActive FROM User u WHERE u.tokenVersion > 0 OR u.isActive = false")
+    List<Object[]> findTokenRevocations();
+    
+    // The email as stored, without flushing pending changes to the user first
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "COMMIT"))
+    @Query("SELECT u.email FROM User u WHERE u.id = :id")
+    Optional<String> findStoredEmailById(@Param("id") Long id);
 }
\ No newline at end of file
@@ -0,0 +1,89 @@
+package com.assignmentmanagement.security;
+
+import com.assignmentmanagement.model.User;
+import com.assignmentmanagement.model.UserRole;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * Lightweight principal built from JWT claims.
+ * Controllers read the id, email and role from here and only load the User entity when they need it.
+ */
+public class AuthenticatedUser implements UserDetails {
+
+    private final Long id;
+    private final String email;
+    private final UserRole role;
+    private final int tokenVersion;
+
+    public AuthenticatedUser(Long id, String email, UserRole role, int tokenVersion) {
+        this.id = id;
+        this.email = email;
+        this.role = role;
+        this.tokenVersion = tokenVersion;
+    }
+
+    public static AuthenticatedUser from(User user) {
+        return new AuthenticatedUser(user.getId(), user.getEmail(), user.getRole(),
+                user.getTokenVersion() != null ? user.getTokenVersion() : 0);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public UserRole getRole() {
+        return role;
+    }
+
+    public int getTokenVersion() {
+        return tokenVersion;
+    }
+
+    // UserDetails implementation
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        if (role == null) {
+            return Collections.emptyList();
+        }
+        return Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+}
@@ -3,6 +3,8 @@ package com.assignmentmanagement.security;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.web.AuthenticationEntryPoint;
 import org.springframework.stereotype.Component;
@@ -12,16 +14,15 @@ import java.io.IOException;
 @Component
 public class JwtAuthenticationEntryPoint implements AuthenticationEntryPoint {
 
+    private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationEntryPoint.class);
+
     @Override
     public void commence(HttpServletRequest request, 
                         HttpServletResponse response, 
                         AuthenticationException authException) throws IOException, ServletException {
         
-        System.out.println("=== AUTHENTICATION ENTRY POINT TRIGGERED ===");
-        System.out.println("Request URI: " + request.getRequestURI());
-        System.out.println("Request Method: " + request.getMethod());
-        System.out.println("Auth Exception: " + authException.getClass().getSimpleName());
-        System.out.println("Auth Exception Message: " + authException.getMessage());
+        logger.debug("Unauthorized request {} {}: {} - {}", request.getMethod(), request.getRequestURI(),
+                authException.getClass().getSimpleName(), authException.getMessage());
         
         response.setContentType("application/json");
         response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
@@ -1,10 +1,14 @@
 package com.assignmentmanagement.security;
 
+import com.assignmentmanagement.model.User;
 import com.assignmentmanagement.service.UserService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -19,38 +23,69 @@ import java.io.IOException;
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
+
     @Autowired
     private JwtTokenProvider tokenProvider;
 
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private UserPrincipalCache principalCache;
+
+    @Autowired
+    private TokenRevocationRegistry revocationRegistry;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, 
                                   HttpServletResponse response, 
                                   FilterChain filterChain) throws ServletException, IOException {
         
-        String requestURI = request.getRequestURI();
-        System.out.println("=== JWT FILTER DEBUG ===");
-        System.out.println("Processing request: " + request.getMethod() + " " + requestURI);
-        
         String jwt = getJwtFromRequest(request);
-        System.out.println("JWT Token present: " + (jwt != null));
+        logger.debug("Processing request: {} {} (JWT present: {})", request.getMethod(), request.getRequestURI(), jwt != null);
 
-        if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-            String username = tokenProvider.getUsernameFromToken(jwt);
+        Claims claims = StringUtils.hasText(jwt) ? tokenProvider.parseToken(jwt) : null;
+        if (claims != null) {
+            AuthenticatedUser principal = resolvePrincipal(claims);
 
-            UserDetails userDetails = userService.loadUserByUsername(username);
-            UsernamePasswordAuthenticationToken authentication = 
-                new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-            authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            if (principal != null) {
+                UsernamePasswordAuthenticationToken authentication = 
+                    new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
-            SecurityContextHolder.getContext().setAuthentication(authentication);
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+            }
         }
 
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Self-contained tokens are authenticated from their claims alone; tokens issued before
+     * the claims were added fall back to loading the user through the principal cache
+     */
+    private AuthenticatedUser resolvePrincipal(Claims claims) {
+        AuthenticatedUser principal = tokenProvider.getPrincipalFromClaims(claims);
+        if (principal != null) {
+            return revocationRegistry.isRevoked(principal.getId(), principal.getTokenVersion()) ? null : principal;
+        }
+
+        String username = claims.getSubject();
+        UserDetails cached = principalCache.get(username);
+        if (cached instanceof AuthenticatedUser) {
+            return (AuthenticatedUser) cached;
+        }
+
+        User user = (User) userService.loadUserByUsername(username);
+        if (!user.isEnabled()) {
+            return null;
+        }
+        principal = AuthenticatedUser.from(user);
+        principalCache.put(username, principal);
+        return principal;
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
@@ -58,4 +93,4 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         return null;
     }
-}
\ No newline at end of file
+}
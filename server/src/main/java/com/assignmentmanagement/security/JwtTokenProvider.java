@@ -1,30 +1,67 @@
 package com.assignmentmanagement.security;
 
+import com.assignmentmanagement.model.User;
+import com.assignmentmanagement.model.UserRole;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Component
 public class JwtTokenProvider {
 
+    private static final Logger logger = LoggerFactory.getLogger(JwtTokenProvider.class);
+
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_TOKEN_VERSION = "ver";
+
     @Value("${jwt.secret}")
     private String jwtSecret;
 
     @Value("${jwt.expirationMs}")
     private int jwtExpirationMs;
 
+    @Value("${jwt.verified-cache.max-size:10000}")
+    private int verifiedCacheMaxSize;
+
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    // Verified claims keyed by the SHA-256 of the compact token, dropped once the token expires
+    private final Map<String, Claims> verifiedTokens = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+    }
+
     private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        return signingKey;
     }
 
     public String generateToken(Authentication authentication) {
         UserDetails userPrincipal = (UserDetails) authentication.getPrincipal();
+        if (userPrincipal instanceof User) {
+            return generateToken((User) userPrincipal);
+        }
         Date expiryDate = new Date(System.currentTimeMillis() + jwtExpirationMs);
 
         return Jwts.builder()
@@ -46,49 +83,133 @@ public class JwtTokenProvider {
                 .compact();
     }
 
-    public String getUsernameFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    /**
+     * Generates a self-contained token carrying the user id, role and token version,
+     * so the filter can authenticate requests without loading the user
+     * @param user the user to issue the token for
+     * @return the signed compact JWT
+     */
+    public String generateToken(User user) {
+        Date expiryDate = new Date(System.currentTimeMillis() + jwtExpirationMs);
 
-        return claims.getSubject();
+        JwtBuilder builder = Jwts.builder()
+                .setSubject(user.getEmail())
+                .claim(CLAIM_USER_ID, user.getId())
+                .claim(CLAIM_TOKEN_VERSION, user.getTokenVersion() != null ? user.getTokenVersion() : 0);
+        if (user.getRole() != null) {
+            builder.claim(CLAIM_ROLE, user.getRole().name());
+        }
+
+        return builder
+                .setIssuedAt(new Date())
+                .setExpiration(expiryDate)
+                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
+                .compact();
     }
 
-    public boolean validateToken(String authToken) {
+    /**
+     * Builds a principal from a self-contained token
+     * @param claims verified claims
+     * @return the principal, or null if the token predates the self-contained format
+     */
+    public AuthenticatedUser getPrincipalFromClaims(Claims claims) {
+        Number userId = claims.get(CLAIM_USER_ID, Number.class);
+        if (userId == null) {
+            return null;
+        }
+
+        String role = claims.get(CLAIM_ROLE, String.class);
+        Number tokenVersion = claims.get(CLAIM_TOKEN_VERSION, Number.class);
+        return new AuthenticatedUser(
+                userId.longValue(),
+                claims.getSubject(),
+                role != null ? UserRole.valueOf(role) : null,
+                tokenVersion != null ? tokenVersion.intValue() : 0);
+    }
+
+    /**
+     * Verifies the token signature and expiry once and returns its claims.
+     * Results are cached until the token expires, so repeat requests with the same token skip the HMAC check.
+     * @param token the compact JWT
+     * @return the verified claims, or null if the token is invalid or expired
+     */
+    public Claims parseToken(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+
+        String cacheKey = hashToken(token);
+        Claims cached = verifiedTokens.get(cacheKey);
+        if (cached != null) {
+            if (!isExpired(cached)) {
+                return cached;
+            }
+            verifiedTokens.remove(cacheKey);
+            return null;
+        }
+
         try {
-            Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(authToken);
-            return true;
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            cacheClaims(cacheKey, claims);
+            return claims;
         } catch (SecurityException ex) {
-            System.err.println("Invalid JWT signature");
+            logger.debug("Invalid JWT signature");
         } catch (MalformedJwtException ex) {
-            System.err.println("Invalid JWT token");
+            logger.debug("Invalid JWT token");
         } catch (ExpiredJwtException ex) {
-            System.err.println("Expired JWT token");
+            logger.debug("Expired JWT token");
         } catch (UnsupportedJwtException ex) {
-            System.err.println("Unsupported JWT token");
+            logger.debug("Unsupported JWT token");
         } catch (IllegalArgumentException ex) {
-            System.err.println("JWT claims string is empty");
+            logger.debug("JWT claims string is empty");
         }
-        return false;
+        return null;
     }
 
-    public Date getExpirationDateFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    public String getUsernameFromToken(String token) {
+        Claims claims = parseToken(token);
+        return claims != null ? claims.getSubject() : null;
+    }
 
-        return claims.getExpiration();
+    public boolean validateToken(String authToken) {
+        return parseToken(authToken) != null;
+    }
+
+    public Date getExpirationDateFromToken(String token) {
+        Claims claims = parseToken(token);
+        return claims != null ? claims.getExpiration() : null;
     }
 
     public boolean isTokenExpired(String token) {
         Date expiration = getExpirationDateFromToken(token);
-        return expiration.before(new Date());
+        return expiration == null || expiration.before(new Date());
+    }
+
+    private void cacheClaims(String cacheKey, Claims claims) {
+        if (claims.getExpiration() == null) {
+            return;
+        }
+        if (verifiedTokens.size() >= verifiedCacheMaxSize) {
+            verifiedTokens.values().removeIf(this::isExpired);
+            if (verifiedTokens.size() >= verifiedCacheMaxSize) {
+                verifiedTokens.clear();
+            }
+        }
+        verifiedTokens.put(cacheKey, claims);
+    }
+
+    private boolean isExpired(Claims claims) {
+        Date expiration = claims.getExpiration();
+        return expiration == null || expiration.getTime() <= System.currentTimeMillis();
+    }
+
+    private String hashToken(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
     }
 }
\ No newline at end of file
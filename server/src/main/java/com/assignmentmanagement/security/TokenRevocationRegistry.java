@@ -0,0 +1,58 @@
+package com.assignmentmanagement.security;
+
+import com.assignmentmanagement.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks the minimum accepted token version per user.
+ * Only users whose tokens were ever revoked (role change, deactivation) have an entry,
+ * so the lookup on the request path is a single map read.
+ */
+@Component
+public class TokenRevocationRegistry {
+
+    private static final int ALL_REVOKED = Integer.MAX_VALUE;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final Map<Long, Integer> minimumVersions = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void load() {
+        for (Object[] row : userRepository.findTokenRevocations()) {
+            Long userId = (Long) row[0];
+            Integer tokenVersion = (Integer) row[1];
+            Boolean isActive = (Boolean) row[2];
+            if (Boolean.FALSE.equals(isActive)) {
+                minimumVersions.put(userId, ALL_REVOKED);
+            } else if (tokenVersion != null && tokenVersion > 0) {
+                minimumVersions.put(userId, tokenVersion);
+            }
+        }
+    }
+
+    public boolean isRevoked(Long userId, int tokenVersion) {
+        Integer minimumVersion = minimumVersions.get(userId);
+        return minimumVersion != null && tokenVersion < minimumVersion;
+    }
+
+    /**
+     * Rejects every token for the user issued before the given version
+     */
+    public void revokeBefore(Long userId, int tokenVersion) {
+        minimumVersions.merge(userId, tokenVersion, Math::max);
+    }
+
+    /**
+     * Rejects every token for the user, e.g. after deactivation
+     */
+    public void revokeAll(Long userId) {
+        minimumVersions.put(userId, ALL_REVOKED);
+    }
+}
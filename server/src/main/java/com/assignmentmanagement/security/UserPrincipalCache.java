@@ -0,0 +1,132 @@
+package com.assignmentmanagement.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded, time-limited cache of authenticated principals keyed by email.
+ * Used by the JWT filter so that authenticated requests do not hit the users table every time.
+ */
+@Component
+public class UserPrincipalCache {
+
+    @Value("${security.principal-cache.ttl-ms:300000}")
+    private long ttlMs;
+
+    @Value("${security.principal-cache.max-size:10000}")
+    private int maxSize;
+
+    private final Map<String, CachedPrincipal> entries = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Returns the cached principal for the given email, or null if absent or expired
+     */
+    public UserDetails get(String email) {
+        CachedPrincipal cached = entries.get(email);
+        if (cached == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        if (cached.isExpired(System.currentTimeMillis())) {
+            entries.remove(email, cached);
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return cached.principal;
+    }
+
+    public void put(String email, UserDetails principal) {
+        if (entries.size() >= maxSize) {
+            evict();
+        }
+        entries.put(email, new CachedPrincipal(principal, System.currentTimeMillis() + ttlMs));
+    }
+
+    public void invalidate(String email) {
+        if (email != null) {
+            entries.remove(email);
+        }
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    /**
+     * Drops expired entries first; if the cache is still full, drops the entries closest to expiry
+     */
+    private void evict() {
+        long now = System.currentTimeMillis();
+        entries.entrySet().removeIf(entry -> {
+            boolean expired = entry.getValue().isExpired(now);
+            if (expired) {
+                evictions.incrementAndGet();
+            }
+            return expired;
+        });
+
+        int overflow = entries.size() - maxSize + 1;
+        if (overflow <= 0) {
+            return;
+        }
+        entries.entrySet().stream()
+            .sorted(Map.Entry.comparingByValue((a, b) -> Long.compare(a.expiresAt, b.expiresAt)))
+            .limit(overflow)
+            .map(Map.Entry::getKey)
+            .toList()
+            .forEach(key -> {
+                if (entries.remove(key) != null) {
+                    evictions.incrementAndGet();
+                }
+            });
+    }
+
+    public CacheStats getStats() {
+        return new CacheStats(entries.size(), hits.get(), misses.get(), evictions.get());
+    }
+
+    private static class CachedPrincipal {
+        private final UserDetails principal;
+        private final long expiresAt;
+
+        CachedPrincipal(UserDetails principal, long expiresAt) {
+            this.principal = principal;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+
+    // Inner class for cache statistics
+    public static class CacheStats {
+        private final int size;
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+
+        public CacheStats(int size, long hits, long misses, long evictions) {
+            this.size = size;
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+        }
+
+        // Getters
+        public int getSize() { return size; }
+        public long getHits() { return hits; }
+        public long getMisses() { return misses; }
+        public long getEvictions() { return evictions; }
+    }
+}
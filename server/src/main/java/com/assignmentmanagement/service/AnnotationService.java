@@ -0,0 +1,312 @@
+package com.assignmentmanagement.service;
+
+import com.assignmentmanagement.dto.AnnotationBatchRequest;
+import com.assignmentmanagement.dto.AnnotationDto;
+import com.assignmentmanagement.model.Submission;
+import com.assignmentmanagement.model.User;
+import com.assignmentmanagement.repository.AnnotationRepository;
+import com.assignmentmanagement.repository.AnnotationTombstoneRepository;
+import com.assignmentmanagement.repository.SubmissionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Applies annotation edits for a submission in batches.
+ * A batch runs in one transaction: the submission's annotation version is advanced with a
+ * conditional update first (so concurrent editors conflict instead of overwriting each other),
+ * then deletes go out as one statement and updates and inserts as JDBC batches. Hibernate cannot
+ * batch inserts for IDENTITY ids, which is why the writes bypass the entity manager.
+ */
+@Service
+public class AnnotationService {
+
+    private static final String INSERT_SQL =
+        "INSERT INTO annotations (submission_id, page_number, x_coordinate, y_coordinate, width, height, " +
+        "annotation_type, content, color, created_by, created_at, updated_at, changed_version) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_SQL =
+        "UPDATE annotations SET page_number = ?, x_coordinate = ?, y_coordinate = ?, width = ?, height = ?, " +
+        "annotation_type = ?, content = ?, color = ?, updated_at = ?, changed_version = ? " +
+        "WHERE id = ? AND submission_id = ?";
+
+    private static final String TOMBSTONE_SQL =
+        "INSERT INTO annotation_tombstones (submission_id, annotation_id, deleted_version, deleted_at) " +
+        "SELECT submission_id, id, ?, ? FROM annotations WHERE id = ? AND submission_id = ?";
+
+    private static final String DEFAULT_COLOR = "#FF0000";
+
+    @Autowired
+    private AnnotationRepository annotationRepository;
+
+    @Autowired
+    private AnnotationTombstoneRepository annotationTombstoneRepository;
+
+    @Autowired
+    private SubmissionRepository submissionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Reads the annotations on a page range, or, given a version the client already has,
+     * only what changed since then. Deltas span all pages, since an edit can move an
+     * annotation out of the window.
+     */
+    @Transactional(readOnly = true)
+    public AnnotationWindow getAnnotationWindow(Long submissionId, int fromPage, int toPage, Long sinceVersion) {
+        long version = submissionRepository.findAnnotationVersion(submissionId).orElse(0L);
+        if (sinceVersion != null && sinceVersion > 0 && sinceVersion <= version) {
+            return new AnnotationWindow(version, false,
+                annotationRepository.findViewsChangedSince(submissionId, sinceVersion),
+                annotationTombstoneRepository.findDeletedIdsSince(submissionId, sinceVersion));
+        }
+        return new AnnotationWindow(version, true,
+            annotationRepository.findViewsByPageRange(submissionId, fromPage, toPage), List.of());
+    }
+
+    public long getCurrentVersion(Long submissionId) {
+        return submissionRepository.findAnnotationVersion(submissionId).orElse(0L);
+    }
+
+    /**
+     * Owners and current annotation version of a submission in one query, for callers running
+     * without a persistence context such as the annotation stream
+     * @return null if the submission does not exist
+     */
+    public StreamAccess getStreamAccess(Long submissionId) {
+        List<Object[]> rows = submissionRepository.findOwnersAndAnnotationVersion(submissionId);
+        if (rows.isEmpty()) {
+            return null;
+        }
+        Object[] row = rows.get(0);
+        return new StreamAccess((Long) row[0], (Long) row[1], ((Number) row[2]).longValue());
+    }
+
+    /**
+     * Applies a batch of creates, updates and deletes
+     * @throws VersionConflictException if the annotations changed since the client's base version
+     */
+    @Transactional
+    public BatchResult applyBatch(Submission submission, User editor, AnnotationBatchRequest request) {
+        Long submissionId = submission.getId();
+        if (submissionRepository.incrementAnnotationVersion(submissionId, request.getBaseVersion()) == 0) {
+            throw new VersionConflictException(submissionRepository.findById(submissionId)
+                .map(Submission::getAnnotationVersion)
+                .orElse(0L));
+        }
+        long version = request.getBaseVersion() + 1;
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int deleted = 0;
+        if (!request.getDeletes().isEmpty()) {
+            recordTombstones(submissionId, request.getDeletes(), version, now);
+            deleted = annotationRepository.deleteBySubmissionIdAndIdIn(submissionId, request.getDeletes());
+        }
+
+        List<AnnotationDto> updates = new ArrayList<>();
+        List<AnnotationDto> inserts = new ArrayList<>();
+        for (AnnotationDto annotation : request.getUpserts()) {
+            (annotation.getId() != null ? updates : inserts).add(annotation);
+        }
+
+        int updated = update(submissionId, updates, version, now);
+        if (updated != updates.size()) {
+            // An id that is not on this submission; roll back rather than apply half a batch
+            throw new RuntimeException("Annotation batch refers to annotations not on this submission");
+        }
+        insert(submissionId, editor.getId(), inserts, version, now);
+
+        return new BatchResult(version, request.getUpserts(), inserts.size(), updated, deleted);
+    }
+
+    private void recordTombstones(Long submissionId, List<Long> ids, long version, Timestamp now) {
+        jdbcTemplate.batchUpdate(TOMBSTONE_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setLong(1, version);
+                ps.setTimestamp(2, now);
+                ps.setLong(3, ids.get(i));
+                ps.setLong(4, submissionId);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return ids.size();
+            }
+        });
+    }
+
+    private int update(Long submissionId, List<AnnotationDto> updates, long version, Timestamp now) {
+        if (updates.isEmpty()) {
+            return 0;
+        }
+        int[] counts = jdbcTemplate.batchUpdate(UPDATE_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                AnnotationDto annotation = updates.get(i);
+                ps.setInt(1, annotation.getPageNumber());
+                setGeometry(ps, 2, annotation);
+                ps.setString(6, annotation.getAnnotationType().name());
+                setContent(ps, 7, annotation);
+                ps.setTimestamp(9, now);
+                ps.setLong(10, version);
+                ps.setLong(11, annotation.getId());
+                ps.setLong(12, submissionId);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return updates.size();
+            }
+        });
+
+        int updated = 0;
+        for (int count : counts) {
+            // Rewritten batches may report SUCCESS_NO_INFO instead of a row count
+            updated += count == Statement.SUCCESS_NO_INFO ? 1 : count;
+        }
+        return updated;
+    }
+
+    private void insert(Long submissionId, Long editorId, List<AnnotationDto> inserts, long version, Timestamp now) {
+        if (inserts.isEmpty()) {
+            return;
+        }
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS),
+            new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    AnnotationDto annotation = inserts.get(i);
+                    ps.setLong(1, submissionId);
+                    ps.setInt(2, annotation.getPageNumber());
+                    setGeometry(ps, 3, annotation);
+                    ps.setString(7, annotation.getAnnotationType().name());
+                    setContent(ps, 8, annotation);
+                    ps.setLong(10, editorId);
+                    ps.setTimestamp(11, now);
+                    ps.setTimestamp(12, now);
+                    ps.setLong(13, version);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return inserts.size();
+                }
+            }, keyHolder);
+
+        // Keys come back in statement order, so they line up with the batch
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < inserts.size() && i < keys.size(); i++) {
+            Object key = keys.get(i).values().iterator().next();
+            inserts.get(i).setId(((Number) key).longValue());
+        }
+    }
+
+    private void setGeometry(PreparedStatement ps, int index, AnnotationDto annotation) throws SQLException {
+        ps.setFloat(index, annotation.getX());
+        ps.setFloat(index + 1, annotation.getY());
+        ps.setFloat(index + 2, annotation.getWidth());
+        ps.setFloat(index + 3, annotation.getHeight());
+    }
+
+    private void setContent(PreparedStatement ps, int index, AnnotationDto annotation) throws SQLException {
+        if (annotation.getContent() != null) {
+            ps.setString(index, annotation.getContent());
+        } else {
+            ps.setNull(index, Types.LONGVARCHAR);
+        }
+        ps.setString(index + 1, annotation.getColor() != null ? annotation.getColor() : DEFAULT_COLOR);
+    }
+
+    // Inner class for a page window or delta of annotations
+    public static class AnnotationWindow {
+        private final long version;
+        private final boolean full;
+        private final List<AnnotationDto> annotations;
+        private final List<Long> deleted;
+
+        public AnnotationWindow(long version, boolean full, List<AnnotationDto> annotations, List<Long> deleted) {
+            this.version = version;
+            this.full = full;
+            this.annotations = annotations;
+            this.deleted = deleted;
+        }
+
+        // Getters
+        public long getVersion() { return version; }
+        public boolean isFull() { return full; }
+        public List<AnnotationDto> getAnnotations() { return annotations; }
+        public List<Long> getDeleted() { return deleted; }
+    }
+
+    // Inner class for the ids a stream access check needs and the version the stream starts from
+    public static class StreamAccess {
+        private final Long teacherId;
+        private final Long studentId;
+        private final long version;
+
+        public StreamAccess(Long teacherId, Long studentId, long version) {
+            this.teacherId = teacherId;
+            this.studentId = studentId;
+            this.version = version;
+        }
+
+        // Getters
+        public Long getTeacherId() { return teacherId; }
+        public Long getStudentId() { return studentId; }
+        public long getVersion() { return version; }
+    }
+
+    // Thrown when a batch was based on an outdated annotation version
+    public static class VersionConflictException extends RuntimeException {
+        private final long currentVersion;
+
+        public VersionConflictException(long currentVersion) {
+            super("Annotations were changed by someone else (current version " + currentVersion + ")");
+            this.currentVersion = currentVersion;
+        }
+
+        public long getCurrentVersion() { return currentVersion; }
+    }
+
+    // Inner class for the outcome of a batch
+    public static class BatchResult {
+        private final long version;
+        private final List<AnnotationDto> annotations;
+        private final int created;
+        private final int updated;
+        private final int deleted;
+
+        public BatchResult(long version, List<AnnotationDto> annotations, int created, int updated, int deleted) {
+            this.version = version;
+            this.annotations = annotations;
+            this.created = created;
+            this.updated = updated;
+            this.deleted = deleted;
+        }
+
+        // Getters
+        public long getVersion() { return version; }
+        public List<AnnotationDto> getAnnotations() { return annotations; }
+        public int getCreated() { return created; }
+        public int getUpdated() { return updated; }
+        public int getDeleted() { return deleted; }
+    }
+}
@@ -0,0 +1,310 @@
+package com.assignmentmanagement.service;
+
+import com.assignmentmanagement.dto.AnnotationDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntConsumer;
+
+/**
+ * In-memory uniform-grid index of annotation rectangles, one grid per page, for hit-testing
+ * and region queries. A submission's index is built from the database on first use and then
+ * follows committed annotation batches; a batch that does not line up with the cached version
+ * drops the index so the next query rebuilds it.
+ */
+@Service
+public class AnnotationSpatialIndex {
+
+    // Grids are sized for about this many annotations per cell
+    private static final int TARGET_PER_CELL = 8;
+    private static final int MAX_CELLS_PER_AXIS = 128;
+
+    @Autowired
+    private AnnotationService annotationService;
+
+    @Value("${annotation.spatial-index.max-submissions:1000}")
+    private int maxSubmissions;
+
+    @Value("${annotation.spatial-index.idle-ms:900000}")
+    private long idleMs;
+
+    private final Map<Long, SubmissionIndex> indexes = new ConcurrentHashMap<>();
+
+    /**
+     * Annotations on the page whose rectangle intersects the given one (edges included)
+     */
+    public List<AnnotationDto> findIntersecting(Long submissionId, int pageNumber,
+                                                float x, float y, float width, float height) {
+        return getIndex(submissionId).query(pageNumber, x, y, x + width, y + height);
+    }
+
+    /**
+     * Annotations on the page that contain the given point
+     */
+    public List<AnnotationDto> findAt(Long submissionId, int pageNumber, float x, float y) {
+        return getIndex(submissionId).query(pageNumber, x, y, x, y);
+    }
+
+    /**
+     * Applies a committed batch to the cached index, if there is one
+     */
+    public void applyBatch(Long submissionId, long version, Collection<Long> deletedIds, List<AnnotationDto> upserts) {
+        SubmissionIndex index = indexes.get(submissionId);
+        if (index != null && !index.apply(version, deletedIds, upserts)) {
+            indexes.remove(submissionId, index);
+        }
+    }
+
+    public void evict(Long submissionId) {
+        indexes.remove(submissionId);
+    }
+
+    @Scheduled(fixedDelayString = "${annotation.spatial-index.sweep-interval-ms:60000}")
+    public void evictIdle() {
+        long cutoff = System.currentTimeMillis() - idleMs;
+        indexes.values().removeIf(index -> index.lastUsed < cutoff);
+    }
+
+    private SubmissionIndex getIndex(Long submissionId) {
+        SubmissionIndex index = indexes.get(submissionId);
+        if (index == null) {
+            if (indexes.size() >= maxSubmissions) {
+                evictIdle();
+                if (indexes.size() >= maxSubmissions) {
+                    indexes.clear();
+                }
+            }
+            // Built outside the map so a slow load never blocks batches for other submissions
+            AnnotationService.AnnotationWindow window =
+                annotationService.getAnnotationWindow(submissionId, 1, Integer.MAX_VALUE, null);
+            SubmissionIndex built = new SubmissionIndex(window.getVersion(), window.getAnnotations());
+            SubmissionIndex existing = indexes.putIfAbsent(submissionId, built);
+            if (existing != null) {
+                index = existing;
+            } else {
+                index = built;
+                // A batch that committed during the load found no index to apply to; the index
+                // must not be cached at the older version then. Batches are applied after they
+                // commit, so any batch that missed the index is visible to this read.
+                if (annotationService.getCurrentVersion(submissionId) != built.getVersion()) {
+                    indexes.remove(submissionId, built);
+                }
+            }
+        }
+        index.lastUsed = System.currentTimeMillis();
+        return index;
+    }
+
+    private static class SubmissionIndex {
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Map<Integer, PageGrid> pages = new HashMap<>();
+        private final Map<Long, AnnotationDto> byId = new HashMap<>();
+        private long version;
+        private volatile long lastUsed = System.currentTimeMillis();
+
+        SubmissionIndex(long version, List<AnnotationDto> annotations) {
+            this.version = version;
+            Map<Integer, List<AnnotationDto>> byPage = new HashMap<>();
+            for (AnnotationDto annotation : annotations) {
+                byId.put(annotation.getId(), annotation);
+                byPage.computeIfAbsent(annotation.getPageNumber(), page -> new ArrayList<>()).add(annotation);
+            }
+            byPage.forEach((page, pageAnnotations) -> pages.put(page, new PageGrid(pageAnnotations)));
+        }
+
+        long getVersion() {
+            lock.readLock().lock();
+            try {
+                return version;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        List<AnnotationDto> query(int pageNumber, float minX, float minY, float maxX, float maxY) {
+            lock.readLock().lock();
+            try {
+                PageGrid grid = pages.get(pageNumber);
+                return grid != null ? grid.query(minX, minY, maxX, maxY) : List.of();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        // Returns false if batches were missed since the indexed version
+        boolean apply(long batchVersion, Collection<Long> deletedIds, List<AnnotationDto> upserts) {
+            lock.writeLock().lock();
+            try {
+                if (batchVersion <= version) {
+                    // Built from the database after the batch committed
+                    return true;
+                }
+                if (batchVersion != version + 1) {
+                    return false;
+                }
+                for (Long id : deletedIds) {
+                    remove(id);
+                }
+                for (AnnotationDto annotation : upserts) {
+                    remove(annotation.getId());
+                    byId.put(annotation.getId(), annotation);
+                    PageGrid grid = pages.get(annotation.getPageNumber());
+                    if (grid == null) {
+                        pages.put(annotation.getPageNumber(), new PageGrid(List.of(annotation)));
+                    } else if (!grid.add(annotation)) {
+                        // The page outgrew its grid; rebuild it at the new density
+                        pages.put(annotation.getPageNumber(), new PageGrid(grid.all()));
+                    }
+                }
+                version = batchVersion;
+                return true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private void remove(Long id) {
+            AnnotationDto existing = byId.remove(id);
+            if (existing != null) {
+                PageGrid grid = pages.get(existing.getPageNumber());
+                if (grid != null) {
+                    grid.remove(existing);
+                }
+            }
+        }
+    }
+
+    /**
+     * Fixed grid over the bounding box of a page's annotations. Rectangles are listed in every
+     * cell they overlap; positions outside the box clamp to the edge cells, so later additions
+     * beyond it stay findable.
+     */
+    private static class PageGrid {
+        private final float originX;
+        private final float originY;
+        private final float cellWidth;
+        private final float cellHeight;
+        private final int columns;
+        private final int rows;
+        private final List<AnnotationDto>[] cells;
+        private final int builtSize;
+        private int size;
+
+        @SuppressWarnings("unchecked")
+        PageGrid(List<AnnotationDto> annotations) {
+            float minX = Float.MAX_VALUE, minY = Float.MAX_VALUE;
+            float maxX = -Float.MAX_VALUE, maxY = -Float.MAX_VALUE;
+            for (AnnotationDto annotation : annotations) {
+                minX = Math.min(minX, annotation.getX());
+                minY = Math.min(minY, annotation.getY());
+                maxX = Math.max(maxX, annotation.getX() + annotation.getWidth());
+                maxY = Math.max(maxY, annotation.getY() + annotation.getHeight());
+            }
+
+            int perAxis = (int) Math.ceil(Math.sqrt((double) annotations.size() / TARGET_PER_CELL));
+            columns = Math.max(1, Math.min(perAxis, MAX_CELLS_PER_AXIS));
+            rows = columns;
+            originX = minX;
+            originY = minY;
+            cellWidth = Math.max((maxX - minX) / columns, Float.MIN_NORMAL);
+            cellHeight = Math.max((maxY - minY) / rows, Float.MIN_NORMAL);
+
+            cells = new List[columns * rows];
+            for (int i = 0; i < cells.length; i++) {
+                cells[i] = new ArrayList<>();
+            }
+            for (AnnotationDto annotation : annotations) {
+                insert(annotation);
+            }
+            builtSize = Math.max(annotations.size(), TARGET_PER_CELL);
+        }
+
+        // Returns false once the page has grown well past the density the grid was sized for
+        boolean add(AnnotationDto annotation) {
+            insert(annotation);
+            return size <= builtSize * 2;
+        }
+
+        void remove(AnnotationDto annotation) {
+            forEachCell(annotation, cell -> cells[cell].removeIf(other -> other.getId().equals(annotation.getId())));
+            size--;
+        }
+
+        List<AnnotationDto> all() {
+            List<AnnotationDto> all = new ArrayList<>(size);
+            for (int column = 0; column < columns; column++) {
+                for (int row = 0; row < rows; row++) {
+                    for (AnnotationDto annotation : cells[row * columns + column]) {
+                        // Each rectangle is collected once, from its first cell
+                        if (column(annotation.getX()) == column && row(annotation.getY()) == row) {
+                            all.add(annotation);
+                        }
+                    }
+                }
+            }
+            return all;
+        }
+
+        List<AnnotationDto> query(float minX, float minY, float maxX, float maxY) {
+            int firstColumn = column(minX);
+            int lastColumn = column(maxX);
+            int firstRow = row(minY);
+            int lastRow = row(maxY);
+
+            List<AnnotationDto> result = new ArrayList<>();
+            for (int row = firstRow; row <= lastRow; row++) {
+                for (int column = firstColumn; column <= lastColumn; column++) {
+                    for (AnnotationDto annotation : cells[row * columns + column]) {
+                        // A rectangle spanning several cells is reported only from the first one the query shares
+                        if (Math.max(column(annotation.getX()), firstColumn) != column
+                            || Math.max(row(annotation.getY()), firstRow) != row) {
+                            continue;
+                        }
+                        if (annotation.getX() <= maxX && annotation.getX() + annotation.getWidth() >= minX
+                            && annotation.getY() <= maxY && annotation.getY() + annotation.getHeight() >= minY) {
+                            result.add(annotation);
+                        }
+                    }
+                }
+            }
+            return result;
+        }
+
+        private void insert(AnnotationDto annotation) {
+            forEachCell(annotation, cell -> cells[cell].add(annotation));
+            size++;
+        }
+
+        private void forEachCell(AnnotationDto annotation, IntConsumer action) {
+            int lastColumn = column(annotation.getX() + annotation.getWidth());
+            int lastRow = row(annotation.getY() + annotation.getHeight());
+            for (int row = row(annotation.getY()); row <= lastRow; row++) {
+                for (int column = column(annotation.getX()); column <= lastColumn; column++) {
+                    action.accept(row * columns + column);
+                }
+            }
+        }
+
+        private int column(float x) {
+            return clamp((int) Math.floor((x - originX) / cellWidth), columns);
+        }
+
+        private int row(float y) {
+            return clamp((int) Math.floor((y - originY) / cellHeight), rows);
+        }
+
+        private static int clamp(int index, int count) {
+            return Math.max(0, Math.min(index, count - 1));
+        }
+    }
+}
@@ -0,0 +1,382 @@
+package com.assignmentmanagement.service;
+
+import com.assignmentmanagement.dto.AnnotationDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes annotation changes to everyone viewing a submission over server-sent events.
+ * Committed batches are queued per submission and a flusher merges whatever arrived within
+ * the flush interval into one delta, serialized once and offered to every subscriber. Each
+ * subscriber has a bounded queue drained by a small shared sender pool, so connections cost
+ * no thread of their own; a subscriber whose queue overflows has it replaced by a single
+ * resync event telling the client to fetch the delta since its last version. A send that
+ * outlasts the send timeout drops its subscriber, so one stalled client cannot hold a sender.
+ */
+@Service
+public class AnnotationSyncHub {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnnotationSyncHub.class);
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${annotation.sync.emitter-timeout-ms:1800000}")
+    private long emitterTimeoutMs;
+
+    @Value("${annotation.sync.queue-capacity:32}")
+    private int queueCapacity;
+
+    @Value("${annotation.sync.max-subscribers:10000}")
+    private int maxSubscribers;
+
+    @Value("${annotation.sync.sender-threads:4}")
+    private int senderThreads;
+
+    @Value("${annotation.sync.flush-interval-ms:50}")
+    private long flushIntervalMs;
+
+    @Value("${annotation.sync.heartbeat-ms:15000}")
+    private long heartbeatMs;
+
+    @Value("${annotation.sync.send-timeout-ms:5000}")
+    private long sendTimeoutMs;
+
+    private ExecutorService senders;
+    // Not the shared @Scheduled thread, where long jobs such as cold-tier compression would stall fan-out
+    private ScheduledExecutorService ticker;
+
+    private final Map<Long, Channel> channels = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        senders = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "annotation-sync-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "annotation-sync-ticker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleWithFixedDelay(() -> runSafely(this::flush), flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        ticker.scheduleWithFixedDelay(() -> runSafely(this::heartbeat), heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+        long stallCheckMs = Math.max(sendTimeoutMs / 2, 1);
+        ticker.scheduleWithFixedDelay(() -> runSafely(this::dropStalledSubscribers), stallCheckMs, stallCheckMs,
+            TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ticker.shutdownNow();
+        senders.shutdownNow();
+        channels.values().forEach(channel -> channel.subscribers.forEach(subscriber -> subscriber.emitter.complete()));
+    }
+
+    /**
+     * Opens a stream for a submission. The first event carries the current version so the client
+     * can catch up through the delta query before applying pushed changes.
+     */
+    public SseEmitter subscribe(Long submissionId, long currentVersion) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new RuntimeException("Too many annotation subscribers");
+        }
+
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Subscriber subscriber = new Subscriber(emitter, queueCapacity);
+        // Joined atomically with the removal of empty channels, so a new subscriber is never orphaned
+        channels.compute(submissionId, (id, existing) -> {
+            Channel channel = existing != null ? existing : new Channel();
+            channel.subscribers.add(subscriber);
+            return channel;
+        });
+
+        Runnable remove = () -> unsubscribe(submissionId, subscriber);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(error -> remove.run());
+
+        subscriber.offer(SseEmitter.event().name("hello").id(Long.toString(currentVersion))
+            .data(Map.of("version", currentVersion), MediaType.APPLICATION_JSON), currentVersion);
+        schedule(subscriber);
+        return emitter;
+    }
+
+    /**
+     * Queues a committed batch for the next flush
+     */
+    public void publish(Long submissionId, long version, Collection<Long> deletedIds, List<AnnotationDto> upserts) {
+        Channel channel = channels.get(submissionId);
+        if (channel == null) {
+            return;
+        }
+        synchronized (channel) {
+            channel.pending.add(new Change(version, deletedIds, upserts));
+        }
+    }
+
+    public void flush() {
+        channels.forEach((submissionId, channel) -> {
+            List<Change> changes;
+            synchronized (channel) {
+                if (channel.pending.isEmpty()) {
+                    return;
+                }
+                changes = new ArrayList<>(channel.pending);
+                channel.pending.clear();
+            }
+
+            Delta delta = merge(changes);
+            String json;
+            try {
+                json = objectMapper.writeValueAsString(delta);
+            } catch (JsonProcessingException ex) {
+                logger.warn("Could not serialize annotation delta for submission {}: {}", submissionId, ex.getMessage());
+                return;
+            }
+            for (Subscriber subscriber : channel.subscribers) {
+                subscriber.offer(SseEmitter.event().name("delta").id(Long.toString(delta.getVersion()))
+                    .data(json, MediaType.APPLICATION_JSON), delta.getVersion());
+                schedule(subscriber);
+            }
+        });
+    }
+
+    public void heartbeat() {
+        // Comments keep proxies from idling the connection out and surface dead clients
+        channels.values().forEach(channel -> channel.subscribers.forEach(subscriber -> {
+            subscriber.offer(SseEmitter.event().comment("ping"), -1);
+            schedule(subscriber);
+        }));
+    }
+
+    /**
+     * Drops subscribers whose current send has run past the send timeout. The emitter is completed
+     * by its sender once the write fails, not here, since completing waits on the blocked send.
+     */
+    public void dropStalledSubscribers() {
+        long cutoff = System.currentTimeMillis() - sendTimeoutMs;
+        channels.forEach((submissionId, channel) -> channel.subscribers.forEach(subscriber -> {
+            if (subscriber.dropIfSendStartedBefore(cutoff)) {
+                logger.info("Dropping annotation subscriber for submission {}: send took over {} ms",
+                    submissionId, sendTimeoutMs);
+                unsubscribe(submissionId, subscriber);
+            }
+        }));
+    }
+
+    // An exception escaping a scheduled task would cancel its later runs
+    private void runSafely(Runnable task) {
+        try {
+            task.run();
+        } catch (RuntimeException ex) {
+            logger.warn("Annotation sync task failed: {}", ex.getMessage());
+        }
+    }
+
+    private Delta merge(List<Change> changes) {
+        Map<Long, AnnotationDto> upserts = new LinkedHashMap<>();
+        Set<Long> deleted = new LinkedHashSet<>();
+        long fromVersion = Long.MAX_VALUE;
+        long version = 0;
+        // Batches commit in version order but may be published out of it
+        changes.sort(Comparator.comparingLong(change -> change.version));
+        for (Change change : changes) {
+            fromVersion = Math.min(fromVersion, change.version - 1);
+            version = Math.max(version, change.version);
+            for (Long id : change.deletedIds) {
+                upserts.remove(id);
+                deleted.add(id);
+            }
+            for (AnnotationDto annotation : change.upserts) {
+                deleted.remove(annotation.getId());
+                upserts.put(annotation.getId(), annotation);
+            }
+        }
+        return new Delta(fromVersion, version, new ArrayList<>(upserts.values()), new ArrayList<>(deleted));
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.dropped || !subscriber.scheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            senders.execute(() -> drain(subscriber));
+        } catch (RejectedExecutionException ex) {
+            subscriber.scheduled.set(false);
+        }
+    }
+
+    // Runs on the sender pool; the scheduled flag keeps sends to one emitter sequential
+    private void drain(Subscriber subscriber) {
+        try {
+            SseEmitter.SseEventBuilder event;
+            while (!subscriber.dropped && (event = subscriber.poll()) != null) {
+                subscriber.startSend();
+                try {
+                    subscriber.emitter.send(event);
+                } finally {
+                    subscriber.endSend();
+                }
+            }
+        } catch (IOException | IllegalStateException ex) {
+            // Client went away or was dropped mid-send; completing fires the removal callback
+            subscriber.emitter.completeWithError(ex);
+            return;
+        } finally {
+            subscriber.scheduled.set(false);
+        }
+        if (subscriber.dropped) {
+            subscriber.emitter.completeWithError(new IOException("Annotation send timed out"));
+        } else if (subscriber.hasQueued()) {
+            schedule(subscriber);
+        }
+    }
+
+    private void unsubscribe(Long submissionId, Subscriber subscriber) {
+        channels.computeIfPresent(submissionId, (id, channel) -> {
+            if (channel.subscribers.remove(subscriber)) {
+                subscriberCount.decrementAndGet();
+            }
+            return channel.subscribers.isEmpty() ? null : channel;
+        });
+    }
+
+    private static class Channel {
+        private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+        private final List<Change> pending = new ArrayList<>();
+    }
+
+    private static class Subscriber {
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> queue;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private long lastQueuedVersion;
+        private volatile boolean dropped;
+        // Guarded by sendLock; set only while a send is in progress
+        private final Object sendLock = new Object();
+        private Thread sender;
+        private long sendStartedAt;
+
+        Subscriber(SseEmitter emitter, int capacity) {
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+
+        // A full queue means the client cannot keep up; replace its backlog with one resync marker
+        synchronized void offer(SseEmitter.SseEventBuilder event, long version) {
+            if (version >= 0) {
+                lastQueuedVersion = version;
+            }
+            if (!queue.offer(event)) {
+                queue.clear();
+                queue.offer(SseEmitter.event().name("resync").id(Long.toString(lastQueuedVersion))
+                    .data(Map.of("version", lastQueuedVersion), MediaType.APPLICATION_JSON));
+            }
+        }
+
+        synchronized SseEmitter.SseEventBuilder poll() {
+            return queue.poll();
+        }
+
+        synchronized boolean hasQueued() {
+            return !queue.isEmpty();
+        }
+
+        void startSend() {
+            synchronized (sendLock) {
+                sender = Thread.currentThread();
+                sendStartedAt = System.currentTimeMillis();
+            }
+        }
+
+        void endSend() {
+            synchronized (sendLock) {
+                sender = null;
+            }
+            // Clears an interrupt from a drop that raced with the end of the send, so it cannot
+            // leak into the next subscriber's sends on this pooled thread
+            Thread.interrupted();
+        }
+
+        // Interrupting wakes a write blocked on a full socket buffer; the container's write
+        // timeout is the backstop if the write ignores it
+        boolean dropIfSendStartedBefore(long cutoff) {
+            synchronized (sendLock) {
+                if (dropped || sender == null || sendStartedAt >= cutoff) {
+                    return false;
+                }
+                dropped = true;
+                sender.interrupt();
+                return true;
+            }
+        }
+    }
+
+    private static class Change {
+        private final long version;
+        private final Collection<Long> deletedIds;
+        private final List<AnnotationDto> upserts;
+
+        Change(long version, Collection<Long> deletedIds, List<AnnotationDto> upserts) {
+            this.version = version;
+            this.deletedIds = deletedIds;
+            this.upserts = upserts;
+        }
+    }
+
+    // Inner class for a merged run of annotation batches
+    public static class Delta {
+        private final long fromVersion;
+        private final long version;
+        private final List<AnnotationDto> upserts;
+        private final List<Long> deleted;
+
+        public Delta(long fromVersion, long version, List<AnnotationDto> upserts, List<Long> deleted) {
+            this.fromVersion = fromVersion;
+            this.version = version;
+            this.upserts = upserts;
+            this.deleted = deleted;
+        }
+
+        // Getters
+        public long getFromVersion() { return fromVersion; }
+        public long getVersion() { return version; }
+        public List<AnnotationDto> getUpserts() { return upserts; }
+        public List<Long> getDeleted() { return deleted; }
+    }
+}
@@ -0,0 +1,161 @@
+package com.assignmentmanagement.service;
+
+import com.assignmentmanagement.model.CodeSequence;
+import com.assignmentmanagement.repository.AssignmentRepository;
+import com.assignmentmanagement.repository.CodeSequenceRepository;
+import com.assignmentmanagement.util.AssignmentCodeGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Hands out unique assignment codes without per-code existence checks.
+ * Sequence numbers are reserved from the database in blocks and mapped through a keyed
+ * permutation of the code space, so codes never repeat but still look random.
+ * Each block costs one locked sequence update plus one query to skip legacy random codes.
+ */
+@Service
+public class AssignmentCodeAllocator {
+
+    private static final Logger logger = LoggerFactory.getLogger(AssignmentCodeAllocator.class);
+
+    private static final String SEQUENCE_NAME = "assignment_code";
+    private static final double UTILIZATION_WARNING_THRESHOLD = 0.8;
+    private static final int EXISTENCE_QUERY_CHUNK = 1000;
+
+    @Autowired
+    private CodeSequenceRepository codeSequenceRepository;
+
+    @Autowired
+    private AssignmentRepository assignmentRepository;
+
+    @Autowired
+    private AssignmentCodeGenerator codeGenerator;
+
+    @Value("${assignment.code.block-size:100}")
+    private int blockSize;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Deque<String> availableCodes = new ArrayDeque<>();
+
+    public AssignmentCodeAllocator(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Allocates a single unique code
+     */
+    public String allocate() {
+        return allocate(1).get(0);
+    }
+
+    /**
+     * Allocates the given number of unique codes, reserving as many blocks as needed
+     */
+    public synchronized List<String> allocate(int count) {
+        List<String> codes = new ArrayList<>(count);
+        while (codes.size() < count) {
+            if (availableCodes.isEmpty()) {
+                reserveBlock(Math.max(blockSize, count - codes.size()));
+            }
+            codes.add(availableCodes.poll());
+        }
+        return codes;
+    }
+
+    /**
+     * Reports how much of the 36^5 code space has been reserved
+     */
+    public CodeSpaceUsage getCodeSpaceUsage() {
+        long reserved = codeSequenceRepository.findById(SEQUENCE_NAME)
+            .map(CodeSequence::getNextValue)
+            .orElse(0L);
+        return new CodeSpaceUsage(AssignmentCodeGenerator.CODE_SPACE, reserved, assignmentRepository.count());
+    }
+
+    private void reserveBlock(int size) {
+        long start = reserveSequenceRange(size);
+        long end = Math.min(start + size, AssignmentCodeGenerator.CODE_SPACE);
+
+        List<String> candidates = new ArrayList<>((int) (end - start));
+        for (long sequence = start; sequence < end; sequence++) {
+            candidates.add(codeGenerator.codeForSequence(sequence));
+        }
+
+        // Codes issued by the old random generator may sit anywhere in the permutation
+        Set<String> taken = new HashSet<>();
+        for (int i = 0; i < candidates.size(); i += EXISTENCE_QUERY_CHUNK) {
+            List<String> chunk = candidates.subList(i, Math.min(i + EXISTENCE_QUERY_CHUNK, candidates.size()));
+            taken.addAll(assignmentRepository.findExistingCodes(chunk));
+        }
+        for (String candidate : candidates) {
+            if (!taken.contains(candidate)) {
+                availableCodes.add(candidate);
+            }
+        }
+
+        double utilization = (double) end / AssignmentCodeGenerator.CODE_SPACE;
+        if (utilization >= UTILIZATION_WARNING_THRESHOLD) {
+            logger.warn("Assignment code space is {}% reserved", Math.round(utilization * 100));
+        }
+    }
+
+    private long reserveSequenceRange(int size) {
+        try {
+            return doReserveSequenceRange(size);
+        } catch (DataIntegrityViolationException ex) {
+            // Another node created the sequence row first
+            return doReserveSequenceRange(size);
+        }
+    }
+
+    private long doReserveSequenceRange(int size) {
+        Long start = transactionTemplate.execute(status -> {
+            CodeSequence sequence = codeSequenceRepository.findByNameForUpdate(SEQUENCE_NAME)
+                .orElseGet(() -> codeSequenceRepository.saveAndFlush(new CodeSequence(SEQUENCE_NAME)));
+
+            long next = sequence.getNextValue();
+            if (next >= AssignmentCodeGenerator.CODE_SPACE) {
+                throw new RuntimeException("Assignment code space exhausted");
+            }
+            sequence.setNextValue(Math.min(next + size, AssignmentCodeGenerator.CODE_SPACE));
+            codeSequenceRepository.save(sequence);
+            return next;
+        });
+        return start != null ? start : 0L;
+    }
+
+    // Inner class for code space statistics
+    public static class CodeSpaceUsage {
+        private final long capacity;
+        private final long reserved;
+        private final long assignmentCount;
+
+        public CodeSpaceUsage(long capacity, long reserved, long assignmentCount) {
+            this.capacity = capacity;
+            this.reserved = reserved;
+            this.assignmentCount = assignmentCount;
+        }
+
+        // Getters
+        public long getCapacity() { return capacity; }
+        public long getReserved() { return reserved; }
+        public long getAssignmentCount() { return assignmentCount; }
+        public double getUtilization() { return (double) reserved / capacity; }
+    }
+}
@@ -0,0 +1,148 @@
+package com.assignmentmanagement.service;
+
+import com.assignmentmanagement.dto.AssignmentSnapshot;
+import com.assignmentmanagement.model.Assignment;
+import com.assignmentmanagement.repository.AssignmentRepository;
+import com.assignmentmanagement.repository.SubmissionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Read-through cache of assignment code to immutable assignment snapshot.
+ * AssignmentService and SubmissionService keep it coherent on writes; expired assignments
+ * are swept periodically and reloaded from the database on the next lookup.
+ */
+@Service
+public class AssignmentCodeIndex {
+
+    @Autowired
+    private AssignmentRepository assignmentRepository;
+
+    @Autowired
+    private SubmissionRepository submissionRepository;
+
+    @Value("${assignment.code-index.ttl-ms:600000}")
+    private long ttlMs;
+
+    @Value("${assignment.code-index.max-size:50000}")
+    private int maxSize;
+
+    @Value("${assignment.code-index.expired-retention-ms:3600000}")
+    private long expiredRetentionMs;
+
+    private final Map<String, IndexEntry> entriesByCode = new ConcurrentHashMap<>();
+    private final Map<Long, String> codesById = new ConcurrentHashMap<>();
+
+    /**
+     * Looks up a snapshot by code, loading it from the database on a miss
+     */
+    public Optional<AssignmentSnapshot> findByCode(String code) {
+        IndexEntry entry = entriesByCode.get(code);
+        if (entry != null && entry.loadedAt + ttlMs > System.currentTimeMillis()) {
+            return Optional.of(entry.snapshot);
+        }
+
+        Optional<Assignment> assignment = assignmentRepository.findByAssignmentCode(code);
+        if (assignment.isEmpty()) {
+            evict(code);
+            return Optional.empty();
+        }
+
+        AssignmentSnapshot snapshot = AssignmentSnapshot.of(assignment.get(),
+            submissionRepository.countSubmissionsByAssignment(assignment.get()));
+        put(snapshot);
+        return Optional.of(snapshot);
+    }
+
+    /**
+     * Replaces the snapshot for a freshly created or updated assignment
+     */
+    public void refresh(Assignment assignment) {
+        String previousCode = codesById.get(assignment.getId());
+        IndexEntry previous = previousCode != null ? entriesByCode.get(previousCode) : null;
+        long submissionCount = previous != null
+            ? previous.snapshot.getSubmissionCount()
+            : submissionRepository.countSubmissionsByAssignment(assignment);
+
+        if (previousCode != null && !previousCode.equals(assignment.getAssignmentCode())) {
+            entriesByCode.remove(previousCode);
+        }
+        put(AssignmentSnapshot.of(assignment, submissionCount));
+    }
+
+    public void evict(String code) {
+        IndexEntry removed = entriesByCode.remove(code);
+        if (removed != null) {
+            codesById.remove(removed.snapshot.getId(), code);
+        }
+    }
+
+    public void evictById(Long assignmentId) {
+        String code = codesById.get(assignmentId);
+        if (code != null) {
+            evict(code);
+        }
+    }
+
+    /**
+     * Applies a submission count change to the cached snapshot, if the assignment is cached
+     */
+    public void adjustSubmissionCount(Long assignmentId, long delta) {
+        String code = codesById.get(assignmentId);
+        if (code == null) {
+            return;
+        }
+        entriesByCode.computeIfPresent(code, (key, entry) -> new IndexEntry(
+            entry.snapshot.withSubmissionCount(entry.snapshot.getSubmissionCount() + delta), entry.loadedAt));
+    }
+
+    /**
+     * Drops snapshots of assignments whose deadline passed longer ago than the retention window
+     */
+    @Scheduled(fixedDelayString = "${assignment.code-index.sweep-interval-ms:60000}")
+    public void evictExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(Duration.ofMillis(expiredRetentionMs));
+        long now = System.currentTimeMillis();
+        entriesByCode.values().removeIf(entry -> {
+            boolean remove = entry.snapshot.getDeadline().isBefore(cutoff) || entry.loadedAt + ttlMs <= now;
+            if (remove) {
+                codesById.remove(entry.snapshot.getId(), entry.snapshot.getAssignmentCode());
+            }
+            return remove;
+        });
+    }
+
+    public int size() {
+        return entriesByCode.size();
+    }
+
+    private void put(AssignmentSnapshot snapshot) {
+        if (entriesByCode.size() >= maxSize) {
+            evictExpired();
+            if (entriesByCode.size() >= maxSize) {
+                entriesByCode.clear();
+                codesById.clear();
+            }
+        }
+        entriesByCode.put(snapshot.getAssignmentCode(), new IndexEntry(snapshot, System.currentTimeMillis()));
+        codesById.put(snapshot.getId(), snapshot.getAssignmentCode());
+    }
+
+    private static class IndexEntry {
+        private final AssignmentSnapshot snapshot;
+        private final long loadedAt;
+
+        IndexEntry(AssignmentSnapshot snapshot, long loadedAt) {
+            this.snapshot = snapshot;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
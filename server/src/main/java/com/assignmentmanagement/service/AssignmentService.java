@@ -1,5 +1,7 @@
 package com.assignmentmanagement.service;
 
+import com.assignmentmanagement.dto.AssignmentResponse;
+import com.assignmentmanagement.dto.AssignmentSnapshot;
 import com.assignmentmanagement.model.Assignment;
 import com.assignmentmanagement.model.User;
 import com.assignmentmanagement.repository.AssignmentRepository;
@@ -20,18 +22,23 @@ public class AssignmentService {
     @Autowired
     private AssignmentCodeGenerator codeGenerator;
 
+    @Autowired
+    private AssignmentCodeIndex codeIndex;
+
+    @Autowired
+    private AssignmentCodeAllocator codeAllocator;
+
     public Assignment createAssignment(String title, String description, User createdBy, 
                                      LocalDateTime deadline, Integer maxMarks, String instructions) {
         
-        // Generate unique assignment code
-        String assignmentCode;
-        do {
-            assignmentCode = codeGenerator.generateCode();
-        } while (assignmentRepository.existsByAssignmentCode(assignmentCode));
+        // Allocate unique assignment code
+        String assignmentCode = codeAllocator.allocate();
 
         Assignment assignment = new Assignment(title, description, assignmentCode, 
                                              createdBy, deadline, maxMarks, instructions);
-        return assignmentRepository.save(assignment);
+        Assignment savedAssignment = assignmentRepository.save(assignment);
+        codeIndex.refresh(savedAssignment);
+        return savedAssignment;
     }
 
     public Optional<Assignment> findById(Long id) {
@@ -42,10 +49,32 @@ public class AssignmentService {
         return assignmentRepository.findByAssignmentCode(code);
     }
 
+    /**
+     * Looks up an assignment by code through the in-memory code index
+     */
+    public Optional<AssignmentSnapshot> findSnapshotByCode(String code) {
+        return codeIndex.findByCode(code);
+    }
+
+    /**
+     * Returns a lazy reference to an assignment without querying the database
+     */
+    public Assignment getAssignmentReference(Long id) {
+        return assignmentRepository.getReferenceById(id);
+    }
+
     public List<Assignment> findAssignmentsByTeacher(User teacher) {
         return assignmentRepository.findActiveAssignmentsByTeacher(teacher);
     }
 
+    /**
+     * Lists a teacher's active assignments with creator name and submission count
+     * in a single query, without loading any submission rows
+     */
+    public List<AssignmentResponse> findAssignmentSummariesByTeacher(User teacher) {
+        return assignmentRepository.findAssignmentSummariesByTeacher(teacher.getId());
+    }
+
     public List<Assignment> findActiveAssignments() {
         return assignmentRepository.findActiveAssignments(LocalDateTime.now());
     }
@@ -55,7 +84,9 @@ public class AssignmentService {
     }
 
     public Assignment updateAssignment(Assignment assignment) {
-        return assignmentRepository.save(assignment);
+        Assignment savedAssignment = assignmentRepository.save(assignment);
+        codeIndex.refresh(savedAssignment);
+        return savedAssignment;
     }
 
     public void deleteAssignment(Long id) {
@@ -64,6 +95,7 @@ public class AssignmentService {
             Assignment assignment = assignmentOpt.get();
             assignment.setIsActive(false);
             assignmentRepository.save(assignment);
+            codeIndex.evict(assignment.getAssignmentCode());
         }
     }
 
@@ -94,11 +126,15 @@ public class AssignmentService {
      * @return String containing a unique 5-digit alphanumeric code
      */
     public String generateUniqueCode() {
-        String code;
-        do {
-            code = codeGenerator.generateCode();
-        } while (assignmentRepository.existsByAssignmentCode(code));
-        return code;
+        return codeAllocator.allocate();
+    }
+
+    /**
+     * Reports how much of the assignment code space is in use
+     * @return code space capacity, reserved sequence numbers and assignment count
+     */
+    public AssignmentCodeAllocator.CodeSpaceUsage getCodeSpaceUsage() {
+        return codeAllocator.getCodeSpaceUsage();
     }
 
     /**
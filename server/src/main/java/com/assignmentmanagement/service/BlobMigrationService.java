@@ -0,0 +1,113 @@
+package com.assignmentmanagement.service;
+
+import com.assignmentmanagement.repository.SubmissionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Moves files stored under per-upload names into the content-addressed store.
+ * Walks submissions in id order, rewrites filePath/correctedFilePath with a conditional update
+ * and only then deletes the original, so an interrupted run can simply be started again.
+ */
+@Service
+public class BlobMigrationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BlobMigrationService.class);
+
+    @Autowired
+    private SubmissionRepository submissionRepository;
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Value("${file.content-addressed.migrate-on-startup:false}")
+    private boolean migrateOnStartup;
+
+    @Value("${file.content-addressed.migration-batch-size:200}")
+    private int batchSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateOnStartup() {
+        if (!migrateOnStartup || !fileStorageService.isContentAddressed()) {
+            return;
+        }
+        Thread worker = new Thread(this::migrate, "blob-migration");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    public MigrationResult migrate() {
+        long migrated = 0;
+        long failed = 0;
+        Long lastId = 0L;
+
+        logger.info("Starting content-addressed file migration");
+        while (true) {
+            List<Object[]> rows = submissionRepository.findFilePathsAfter(lastId, PageRequest.of(0, batchSize));
+            if (rows.isEmpty()) {
+                break;
+            }
+            for (Object[] row : rows) {
+                Long id = (Long) row[0];
+                lastId = id;
+                for (int column = 1; column <= 2; column++) {
+                    String path = (String) row[column];
+                    if (path == null || path.isEmpty()) {
+                        continue;
+                    }
+                    try {
+                        if (migrateFile(id, path, column == 2)) {
+                            migrated++;
+                        }
+                    } catch (RuntimeException ex) {
+                        failed++;
+                        logger.warn("Could not migrate file for submission {}: {}", id, ex.getMessage());
+                    }
+                }
+            }
+        }
+        logger.info("Content-addressed file migration finished: {} migrated, {} failed", migrated, failed);
+        return new MigrationResult(migrated, failed);
+    }
+
+    private boolean migrateFile(Long submissionId, String oldPath, boolean corrected) {
+        String blobPath = fileStorageService.migrateToBlob(oldPath);
+        if (blobPath == null) {
+            return false;
+        }
+
+        int updated = corrected
+            ? submissionRepository.updateCorrectedFilePath(submissionId, oldPath, blobPath)
+            : submissionRepository.updateFilePath(submissionId, oldPath, blobPath);
+        if (updated == 0) {
+            // The row changed underneath us; give back the reference we just took
+            fileStorageService.deleteFile(blobPath);
+            return false;
+        }
+        fileStorageService.deleteFile(oldPath);
+        return true;
+    }
+
+    // Inner class for migration results
+    public static class MigrationResult {
+        private final long migrated;
+        private final long failed;
+
+        public MigrationResult(long migrated, long failed) {
+            this.migrated = migrated;
+            this.failed = failed;
+        }
+
+        // Getters
+        public long getMigrated() { return migrated; }
+        public long getFailed() { return failed; }
+    }
+}
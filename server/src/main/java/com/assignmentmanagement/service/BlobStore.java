@@ -0,0 +1,46 @@
+package com.assignmentmanagement.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Storage backend for uploaded files.
+ * Keys are relative, slash-separated names chosen by FileStorageService; each backend maps a key
+ * to a location string, which is what gets persisted on the submission.
+ */
+public interface BlobStore {
+
+    /**
+     * Name used to select the backend through file.blob-store
+     */
+    String getName();
+
+    /**
+     * Moves a fully written local file to the given key
+     * @return the location to persist
+     */
+    String store(String key, Path source) throws IOException;
+
+    String locationOf(String key);
+
+    /**
+     * Whether the location was produced by this backend
+     */
+    boolean handles(String location);
+
+    boolean exists(String location) throws IOException;
+
+    InputStream open(String location) throws IOException;
+
+    void delete(String location) throws IOException;
+
+    /**
+     * A short-lived URL the client can fetch the file from directly, if the backend supports it
+     */
+    default Optional<URI> presignedDownloadUrl(String location, String filename, boolean inline) {
+        return Optional.empty();
+    }
+}
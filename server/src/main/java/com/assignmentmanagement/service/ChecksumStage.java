@@ -0,0 +1,49 @@
+package com.assignmentmanagement.service;
+
+import com.assignmentmanagement.model.Submission;
+import com.assignmentmanagement.repository.SubmissionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+
+/**
+ * Reads the stored file back, records its SHA-256 and, for content-addressed blobs,
+ * checks it against the hash in the file name
+ */
+@Component
+@Order(1)
+public class ChecksumStage implements SubmissionStage {
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Autowired
+    private SubmissionRepository submissionRepository;
+
+    @Override
+    public String getName() {
+        return "checksum";
+    }
+
+    @Override
+    public void process(Submission submission) throws Exception {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        try (InputStream in = new DigestInputStream(fileStorageService.openStream(submission.getFilePath()), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        String hash = HexFormat.of().formatHex(digest.digest());
+
+        String expected = fileStorageService.expectedHash(submission.getFilePath());
+        if (expected != null && !expected.equals(hash)) {
+            throw new IOException("Stored file is corrupt: expected " + expected + " but read " + hash);
+        }
+        submissionRepository.updateContentHash(submission.getId(), hash);
+    }
+}
@@ -0,0 +1,253 @@
+package com.assignmentmanagement.service;
+
+import com.assignmentmanagement.model.FileTierRecord;
+import com.assignmentmanagement.model.StorageTier;
+import com.assignmentmanagement.repository.FileTierRecordRepository;
+import com.assignmentmanagement.repository.SubmissionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Moves files of long-closed assignments to a compressed cold tier.
+ * A cold file is stored gzip-compressed next to its original path; reads through
+ * FileStorageService and FileDeliveryService decompress it transparently, so the stored
+ * paths on submissions never change. The decompressed bytes are hash-checked against the
+ * original before the original is removed.
+ */
+@Service
+public class ColdStorageService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ColdStorageService.class);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Autowired
+    private SubmissionRepository submissionRepository;
+
+    @Autowired
+    private FileTierRecordRepository fileTierRecordRepository;
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Value("${file.cold-tier.enabled:false}")
+    private boolean enabled;
+
+    @Value("${file.cold-tier.expired-days:30}")
+    private int expiredDays;
+
+    @Value("${file.cold-tier.compression-level:6}")
+    private int compressionLevel;
+
+    // Files that shrink less than this are recorded as hot and left alone
+    @Value("${file.cold-tier.min-savings:0.05}")
+    private double minSavings;
+
+    @Value("${file.cold-tier.batch-size:200}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${file.cold-tier.interval-ms:3600000}")
+    public void compressColdFiles() {
+        if (!enabled) {
+            return;
+        }
+
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(expiredDays);
+        long compressed = 0;
+        long savedBytes = 0;
+        Long lastId = 0L;
+
+        while (true) {
+            List<Object[]> rows = submissionRepository.findFilePathsClosedBefore(cutoff, lastId, PageRequest.of(0, batchSize));
+            if (rows.isEmpty()) {
+                break;
+            }
+
+            List<String> paths = new ArrayList<>();
+            for (Object[] row : rows) {
+                lastId = (Long) row[0];
+                addPath(paths, (String) row[1]);
+                addPath(paths, (String) row[2]);
+            }
+            Set<String> recorded = paths.isEmpty()
+                ? Set.of()
+                : new HashSet<>(fileTierRecordRepository.findRecordedPaths(paths));
+
+            for (String path : paths) {
+                if (recorded.contains(path)) {
+                    continue;
+                }
+                try {
+                    FileTierRecord record = compress(path);
+                    if (record != null && record.getTier() == StorageTier.COLD) {
+                        compressed++;
+                        savedBytes += record.getOriginalSize() - record.getStoredSize();
+                    }
+                } catch (IOException | RuntimeException ex) {
+                    logger.warn("Could not move {} to the cold tier: {}", path, ex.getMessage());
+                }
+            }
+        }
+
+        if (compressed > 0) {
+            logger.info("Moved {} files to the cold tier, saving {} bytes", compressed, savedBytes);
+        }
+    }
+
+    /**
+     * Compresses one file into the cold tier and records the outcome
+     * @return the tier record, or null if the file is not on local disk or no longer exists in the hot tier
+     */
+    public FileTierRecord compress(String filePath) throws IOException {
+        if (!fileStorageService.isLocalFile(filePath)) {
+            return null;
+        }
+        Path source = fileStorageService.loadFile(filePath);
+        Path target = FileStorageService.compressedPath(source);
+        Path temp = target.resolveSibling("." + target.getFileName() + ".part");
+
+        long originalSize;
+        FileTime lastModified;
+        try {
+            originalSize = Files.size(source);
+            lastModified = Files.getLastModifiedTime(source);
+        } catch (NoSuchFileException ex) {
+            return null;
+        }
+
+        try {
+            byte[] originalHash = writeCompressed(source, temp);
+            long storedSize = Files.size(temp);
+
+            if (storedSize > originalSize * (1 - minSavings)) {
+                Files.deleteIfExists(temp);
+                return fileTierRecordRepository.save(new FileTierRecord(filePath, StorageTier.HOT,
+                    originalSize, originalSize, toHex(originalHash)));
+            }
+
+            if (!MessageDigest.isEqual(originalHash, hashDecompressed(temp))) {
+                throw new IOException("Compressed copy does not match the original");
+            }
+
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            // Keep the original timestamp so Last-Modified stays stable across the move
+            Files.setLastModifiedTime(target, lastModified);
+            FileTierRecord record = fileTierRecordRepository.save(new FileTierRecord(filePath, StorageTier.COLD,
+                originalSize, storedSize, toHex(originalHash)));
+            Files.delete(source);
+            return record;
+
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Totals per tier: file count, original bytes and stored bytes
+     */
+    public List<TierSummary> getTierSummary() {
+        List<TierSummary> summary = new ArrayList<>();
+        for (Object[] row : fileTierRecordRepository.summarizeByTier()) {
+            summary.add(new TierSummary((StorageTier) row[0], (Long) row[1],
+                row[2] != null ? ((Number) row[2]).longValue() : 0L,
+                row[3] != null ? ((Number) row[3]).longValue() : 0L));
+        }
+        return summary;
+    }
+
+    private byte[] writeCompressed(Path source, Path temp) throws IOException {
+        MessageDigest digest = newDigest();
+        try (InputStream in = new DigestInputStream(Files.newInputStream(source), digest);
+             OutputStream fileOut = Files.newOutputStream(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+             GZIPOutputStream out = new GZIPOutputStream(fileOut, BUFFER_SIZE) {
+                 {
+                     def.setLevel(compressionLevel);
+                 }
+             }) {
+            in.transferTo(out);
+        }
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        return digest.digest();
+    }
+
+    private byte[] hashDecompressed(Path compressed) throws IOException {
+        MessageDigest digest = newDigest();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(compressed), BUFFER_SIZE)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return digest.digest();
+    }
+
+    private void addPath(List<String> paths, String path) {
+        if (path != null && !path.isEmpty()) {
+            paths.add(path);
+        }
+    }
+
+    private MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+
+    private String toHex(byte[] hash) {
+        return HexFormat.of().formatHex(hash);
+    }
+
+    // Inner class for per-tier totals
+    public static class TierSummary {
+        private final StorageTier tier;
+        private final long files;
+        private final long originalBytes;
+        private final long storedBytes;
+
+        public TierSummary(StorageTier tier, long files, long originalBytes, long storedBytes) {
+            this.tier = tier;
+            this.files = files;
+            this.originalBytes = originalBytes;
+            this.storedBytes = storedBytes;
+        }
+
+        // Getters
+        public StorageTier getTier() { return tier; }
+        public long getFiles() { return files; }
+        public long getOriginalBytes() { return originalBytes; }
+        public long getStoredBytes() { return storedBytes; }
+        public double getCompressionRatio() { return originalBytes > 0 ? (double) storedBytes / originalBytes : 1.0; }
+    }
+}
@@ -0,0 +1,248 @@
+package com.assignmentmanagement.service;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Writes stored PDFs to the response with conditional GET and single byte-range support.
+ * Bodies go out through Tomcat's sendfile when the connector offers it, otherwise through
+ * FileChannel.transferTo, so file contents are never copied into the heap. Cold-tier files
+ * are decompressed as a stream instead.
+ */
+@Service
+public class FileDeliveryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileDeliveryService.class);
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    private static final long SENDFILE_THRESHOLD = 48 * 1024;
+    private static final int TRANSFER_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Serves the file, answering 304, 206 or 416 where the request headers call for it
+     */
+    public void serve(Path file, String filename, boolean inline,
+                      HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Path source = file;
+        boolean compressed = false;
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (NoSuchFileException ex) {
+            // Cold-tier files are kept gzip-compressed beside the original path
+            source = FileStorageService.compressedPath(file);
+            attributes = Files.readAttributes(source, BasicFileAttributes.class);
+            compressed = true;
+        }
+
+        long length = compressed ? readUncompressedSize(source) : attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        String etag = buildETag(source, length, attributes);
+
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, lastModified);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        // Clients may keep the file but must revalidate, which is a cheap 304 when unchanged
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+
+        if (isNotModified(request, etag, lastModified)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long start = 0;
+        long end = length - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        if (range != null && isRangeApplicable(request, etag, lastModified)) {
+            long[] bounds = parseRange(range, length);
+            if (bounds == null) {
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                return;
+            }
+            if (bounds.length == 2) {
+                start = bounds[0];
+                end = bounds[1];
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+
+        long count = end - start + 1;
+        response.setContentType(MediaType.APPLICATION_PDF_VALUE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+            (inline ? "inline" : "attachment") + "; filename=\"" + filename + "\"");
+        response.setContentLengthLong(count);
+
+        if ("HEAD".equals(request.getMethod()) || count <= 0) {
+            return;
+        }
+
+        if (compressed) {
+            writeDecompressed(source, start, count, response);
+            return;
+        }
+
+        if (count >= SENDFILE_THRESHOLD && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long transferred = channel.transferTo(position, remaining, target);
+                if (transferred <= 0) {
+                    break;
+                }
+                position += transferred;
+                remaining -= transferred;
+            }
+        } catch (IOException ex) {
+            // Viewers routinely abort range requests when the user scrolls away
+            logger.debug("File transfer aborted for {}: {}", file.getFileName(), ex.getMessage());
+        }
+    }
+
+    private void writeDecompressed(Path source, long start, long count, HttpServletResponse response) {
+        byte[] buffer = new byte[TRANSFER_BUFFER_SIZE];
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(source), TRANSFER_BUFFER_SIZE)) {
+            in.skipNBytes(start);
+            OutputStream out = response.getOutputStream();
+            long remaining = count;
+            while (remaining > 0) {
+                int read = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                if (read == -1) {
+                    break;
+                }
+                out.write(buffer, 0, read);
+                remaining -= read;
+            }
+        } catch (IOException ex) {
+            logger.debug("Compressed file transfer aborted for {}: {}", source.getFileName(), ex.getMessage());
+        }
+    }
+
+    // The gzip trailer ends with the uncompressed size modulo 2^32, exact for files under 4GB
+    private long readUncompressedSize(Path compressed) throws IOException {
+        try (FileChannel channel = FileChannel.open(compressed, StandardOpenOption.READ)) {
+            ByteBuffer trailer = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+            channel.read(trailer, channel.size() - 4);
+            return trailer.getInt(0) & 0xffffffffL;
+        }
+    }
+
+    private String buildETag(Path file, long length, BasicFileAttributes attributes) {
+        Object fileKey = attributes.fileKey();
+        int identity = fileKey != null ? fileKey.hashCode() : file.toAbsolutePath().hashCode();
+        return "\"" + Long.toHexString(length) + "-"
+            + Long.toHexString(attributes.lastModifiedTime().toMillis()) + "-"
+            + Integer.toHexString(identity) + "\"";
+    }
+
+    private boolean isNotModified(HttpServletRequest request, String etag, long lastModified) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            return matchesETag(ifNoneMatch, etag);
+        }
+        long ifModifiedSince = getDateHeader(request, HttpHeaders.IF_MODIFIED_SINCE);
+        // HTTP dates have second precision
+        return ifModifiedSince != -1 && lastModified / 1000 <= ifModifiedSince / 1000;
+    }
+
+    private boolean isRangeApplicable(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.trim().equals(etag);
+        }
+        long ifRangeDate = getDateHeader(request, HttpHeaders.IF_RANGE);
+        return ifRangeDate != -1 && lastModified / 1000 == ifRangeDate / 1000;
+    }
+
+    private boolean matchesETag(String header, String etag) {
+        for (String candidate : header.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*") || value.equals(etag) || value.equals("W/" + etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Parses a single byte range
+     * @return {start, end} inclusive, an empty array to serve the whole file, or null if unsatisfiable
+     */
+    private long[] parseRange(String header, long length) {
+        if (!header.startsWith("bytes=") || header.indexOf(',') != -1) {
+            // Multi-range requests are answered with the full body
+            return new long[0];
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash == -1) {
+            return new long[0];
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            long start;
+            long end;
+            if (first.isEmpty()) {
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0) {
+                    return null;
+                }
+                start = Math.max(0, length - suffix);
+                end = length - 1;
+            } else {
+                start = Long.parseLong(first);
+                end = last.isEmpty() ? length - 1 : Math.min(Long.parseLong(last), length - 1);
+            }
+            if (start >= length || start > end) {
+                return null;
+            }
+            return new long[] {start, end};
+        } catch (NumberFormatException ex) {
+            return new long[0];
+        }
+    }
+
+    private long getDateHeader(HttpServletRequest request, String name) {
+        try {
+            return request.getDateHeader(name);
+        } catch (IllegalArgumentException ex) {
+            return -1;
+        }
+    }
+}
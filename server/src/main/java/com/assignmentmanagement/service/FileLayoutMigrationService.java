@@ -0,0 +1,95 @@
+package com.assignmentmanagement.service;
+
+import com.assignmentmanagement.repository.SubmissionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Moves named uploads from the flat upload directory into the sharded layout.
+ * Each file is hard-linked into place, the row is repointed with a conditional update and
+ * only then is the flat name removed, so downloads keep working throughout and a run can be resumed.
+ */
+@Service
+public class FileLayoutMigrationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileLayoutMigrationService.class);
+
+    @Autowired
+    private SubmissionRepository submissionRepository;
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Value("${file.layout-migration.migrate-on-startup:false}")
+    private boolean migrateOnStartup;
+
+    @Value("${file.layout-migration.batch-size:200}")
+    private int batchSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateOnStartup() {
+        if (!migrateOnStartup || !fileStorageService.isShardedLayout()) {
+            return;
+        }
+        Thread worker = new Thread(this::migrate, "file-layout-migration");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    public BlobMigrationService.MigrationResult migrate() {
+        long migrated = 0;
+        long failed = 0;
+        Long lastId = 0L;
+
+        logger.info("Starting sharded file layout migration");
+        while (true) {
+            List<Object[]> rows = submissionRepository.findFilePathsAfter(lastId, PageRequest.of(0, batchSize));
+            if (rows.isEmpty()) {
+                break;
+            }
+            for (Object[] row : rows) {
+                Long id = (Long) row[0];
+                String assignmentCode = (String) row[3];
+                lastId = id;
+                for (int column = 1; column <= 2; column++) {
+                    String path = (String) row[column];
+                    if (path == null || path.isEmpty()) {
+                        continue;
+                    }
+                    try {
+                        if (migrateFile(id, path, assignmentCode, column == 2)) {
+                            migrated++;
+                        }
+                    } catch (RuntimeException ex) {
+                        failed++;
+                        logger.warn("Could not relocate file for submission {}: {}", id, ex.getMessage());
+                    }
+                }
+            }
+        }
+        logger.info("Sharded file layout migration finished: {} migrated, {} failed", migrated, failed);
+        return new BlobMigrationService.MigrationResult(migrated, failed);
+    }
+
+    private boolean migrateFile(Long submissionId, String oldPath, String assignmentCode, boolean corrected) {
+        String newPath = fileStorageService.relocateToShard(oldPath, assignmentCode);
+        if (newPath == null) {
+            return false;
+        }
+
+        int updated = corrected
+            ? submissionRepository.updateCorrectedFilePath(submissionId, oldPath, newPath)
+            : submissionRepository.updateFilePath(submissionId, oldPath, newPath);
+        // On a lost race drop the new link instead, the row no longer points at the old file
+        fileStorageService.deleteFile(updated == 0 ? newPath : oldPath);
+        return updated > 0;
+    }
+}
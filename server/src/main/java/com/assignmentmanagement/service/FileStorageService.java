@@ -1,18 +1,36 @@
 package com.assignmentmanagement.service;
 
+import com.assignmentmanagement.repository.FileTierRecordRepository;
+import com.assignmentmanagement.repository.StoredBlobRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.regex.Pattern;
 
 @Service
 public class FileStorageService {
@@ -20,64 +38,404 @@ public class FileStorageService {
     @Value("${file.upload-dir:./uploads}")
     private String uploadDir;
 
+    // "named" keeps per-upload filenames, "content-addressed" deduplicates by SHA-256
+    @Value("${file.storage-mode:named}")
+    private String storageMode;
+
+    // "flat" keeps every file in upload-dir, "sharded" nests named files by assignment code and hash prefix
+    @Value("${file.layout:flat}")
+    private String layout;
+
+    @Autowired
+    private StoredBlobRepository storedBlobRepository;
+
+    @Autowired
+    private FileTierRecordRepository fileTierRecordRepository;
+
+    // Backend new files are written to; see BlobStore
+    @Value("${file.blob-store:filesystem}")
+    private String blobStoreName;
+
+    @Autowired
+    private FileSystemBlobStore localStore;
+
+    @Autowired
+    private List<BlobStore> blobStores;
+
+    private BlobStore activeStore;
+
+    private Path uploadPath;
+
     private static final long MAX_FILE_SIZE = 10 * 1024 * 1024; // 10MB
     private static final String[] ALLOWED_EXTENSIONS = {"pdf"};
+    private static final byte[] PDF_MAGIC = {'%', 'P', 'D', 'F', '-'};
+    private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+    private static final String STORAGE_MODE_CONTENT_ADDRESSED = "content-addressed";
+    private static final Pattern BLOB_FILENAME = Pattern.compile("[0-9a-f]{64}\\.pdf");
+    private static final int LOCK_STRIPES = 64;
+    private static final String LAYOUT_SHARDED = "sharded";
+    private static final Pattern SHARD_NAME = Pattern.compile("[A-Za-z0-9]+");
+
+    private final Object[] blobLocks = new Object[LOCK_STRIPES];
+
+    public FileStorageService() {
+        for (int i = 0; i < blobLocks.length; i++) {
+            blobLocks[i] = new Object();
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        // Uploads are always spooled locally, whichever backend they end up in
+        uploadPath = localStore.getRoot();
+        activeStore = blobStores.stream()
+            .filter(store -> store.getName().equals(blobStoreName))
+            .findFirst()
+            .orElseThrow(() -> new IllegalStateException("Unknown file.blob-store: " + blobStoreName));
+    }
 
     public String storeFile(MultipartFile file, String assignmentCode, String studentEmail) {
         // Validate file
         validateFile(file);
 
+        try (InputStream inputStream = file.getInputStream()) {
+            return storeStream(inputStream, file.getOriginalFilename(), assignmentCode, studentEmail).getPath();
+        } catch (IOException ex) {
+            throw new RuntimeException("Could not store file. Please try again!", ex);
+        }
+    }
+
+    /**
+     * Streams an upload straight to disk through a FileChannel.
+     * The PDF header and the size limit are checked while streaming, and the file only reaches
+     * the configured backend under its final name once it has been fully written and synced.
+     * In content-addressed mode the final name is the SHA-256 of the contents, so identical
+     * files share one blob.
+     */
+    public StoredFile storeStream(InputStream inputStream, String originalFilename,
+                                  String assignmentCode, String studentEmail) {
+        validateFilename(originalFilename);
+
+        // Temp file sits in the upload directory so the final move is a rename
+        Path tempLocation = uploadPath.resolve("." + UUID.randomUUID() + ".part");
+
         try {
-            // Create upload directory if it doesn't exist
-            Path uploadPath = Paths.get(uploadDir).toAbsolutePath().normalize();
-            Files.createDirectories(uploadPath);
-
-            // Generate unique filename
-            String originalFilename = StringUtils.cleanPath(file.getOriginalFilename());
-            String fileExtension = getFileExtension(originalFilename);
-            String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
-            String uniqueId = UUID.randomUUID().toString().substring(0, 8);
-            String newFilename = String.format("%s_%s_%s_%s.%s", 
-                assignmentCode, 
-                studentEmail.replace("@", "_").replace(".", "_"),
-                timestamp,
-                uniqueId,
-                fileExtension
-            );
-
-            // Copy file to upload directory
-            Path targetLocation = uploadPath.resolve(newFilename);
-            Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
-
-            return targetLocation.toString();
+            localStore.ensureDirectory(uploadPath);
+            MessageDigest digest = newDigest();
+            long size = writeStream(inputStream, tempLocation, digest, MAX_FILE_SIZE);
+            String hash = HexFormat.of().formatHex(digest.digest());
+
+            String location;
+            if (isContentAddressed()) {
+                location = placeBlob(tempLocation, hash, size);
+            } else {
+                String newFilename = generateFilename(StringUtils.cleanPath(originalFilename), assignmentCode, studentEmail);
+                location = activeStore.store(namedKey(assignmentCode, newFilename), tempLocation);
+            }
+            return new StoredFile(location, size, hash);
 
         } catch (IOException ex) {
+            deleteQuietly(tempLocation);
             throw new RuntimeException("Could not store file. Please try again!", ex);
+        } catch (RuntimeException ex) {
+            deleteQuietly(tempLocation);
+            throw ex;
         }
     }
 
-    public Path loadFile(String filename) {
-        Path filePath = Paths.get(uploadDir).toAbsolutePath().normalize().resolve(filename);
-        
-        if (!Files.exists(filePath)) {
-            throw new RuntimeException("File not found: " + filename);
+    /**
+     * Copies an existing file into the content-addressed store and takes a reference on it
+     * @return the blob path, or null if the file is already a blob or no longer exists
+     */
+    public String migrateToBlob(String filePath) {
+        if (isBlobPath(filePath) || !localStore.handles(filePath)) {
+            return null;
+        }
+        Path source = Paths.get(filePath);
+        if (!Files.exists(source)) {
+            return null;
+        }
+
+        Path tempLocation = uploadPath.resolve("." + UUID.randomUUID() + ".part");
+        try (InputStream inputStream = Files.newInputStream(source)) {
+            MessageDigest digest = newDigest();
+            long size = writeStream(inputStream, tempLocation, digest, Long.MAX_VALUE);
+            return placeBlob(tempLocation, HexFormat.of().formatHex(digest.digest()), size);
+        } catch (IOException ex) {
+            deleteQuietly(tempLocation);
+            throw new RuntimeException("Could not migrate file: " + filePath, ex);
+        } catch (RuntimeException ex) {
+            deleteQuietly(tempLocation);
+            throw ex;
         }
-        
-        return filePath;
     }
 
-    public void deleteFile(String filePath) {
+    /**
+     * Hard-links a file from the flat upload directory into the sharded layout.
+     * The original stays in place until the caller has repointed the database row.
+     * @return the sharded path, or null if the file is not in the flat layout or no longer exists
+     */
+    public String relocateToShard(String filePath, String assignmentCode) {
+        if (!localStore.handles(filePath)) {
+            return null;
+        }
+        Path source = Paths.get(filePath).toAbsolutePath().normalize();
+        if (!uploadPath.equals(source.getParent()) || !Files.exists(source)) {
+            return null;
+        }
+
+        Path target = uploadPath.resolve(shardedKey(assignmentCode, source.getFileName().toString()));
+        try {
+            localStore.ensureDirectory(target.getParent());
+            if (!Files.exists(target)) {
+                try {
+                    Files.createLink(target, source);
+                } catch (UnsupportedOperationException | IOException ex) {
+                    Files.copy(source, target, StandardCopyOption.COPY_ATTRIBUTES);
+                }
+            }
+            return target.toString();
+        } catch (IOException ex) {
+            throw new RuntimeException("Could not relocate file: " + filePath, ex);
+        }
+    }
+
+    public boolean isShardedLayout() {
+        return LAYOUT_SHARDED.equals(layout);
+    }
+
+    private String namedKey(String assignmentCode, String filename) {
+        return isShardedLayout() ? shardedKey(assignmentCode, filename) : filename;
+    }
+
+    // Sharded named layout: <assignmentCode>/<2 hex digits of the filename hash>/<filename>
+    private String shardedKey(String assignmentCode, String filename) {
+        String directory = assignmentCode != null && SHARD_NAME.matcher(assignmentCode).matches()
+            ? assignmentCode : "misc";
+        String shard = String.format("%02x", filename.hashCode() & 0xff);
+        return directory + "/" + shard + "/" + filename;
+    }
+
+    public boolean isContentAddressed() {
+        return STORAGE_MODE_CONTENT_ADDRESSED.equals(storageMode);
+    }
+
+    /**
+     * Moves a fully written temp file into its blob location, or drops it if the blob already exists.
+     * Runs under the hash's lock so it cannot interleave with the last release of the same blob.
+     */
+    private String placeBlob(Path tempLocation, String hash, long size) throws IOException {
+        String key = blobKey(hash);
+        String location = activeStore.locationOf(key);
+        synchronized (lockFor(hash)) {
+            storedBlobRepository.acquire(hash, size);
+            try {
+                if (activeStore.exists(location)) {
+                    Files.delete(tempLocation);
+                } else {
+                    activeStore.store(key, tempLocation);
+                }
+            } catch (IOException | RuntimeException ex) {
+                storedBlobRepository.release(hash);
+                throw ex;
+            }
+        }
+        return location;
+    }
+
+    private void releaseBlob(String hash, String location) throws IOException {
+        synchronized (lockFor(hash)) {
+            storedBlobRepository.release(hash);
+            if (storedBlobRepository.deleteIfUnreferenced(hash) > 0) {
+                deleteStored(location);
+            }
+        }
+    }
+
+    // Blobs are sharded by the first two bytes of the hash: ab/cd/abcd....pdf
+    private String blobKey(String hash) {
+        return hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/" + hash + ".pdf";
+    }
+
+    private String blobHash(String filePath) {
+        int separator = Math.max(filePath.lastIndexOf('/'), filePath.lastIndexOf(File.separatorChar));
+        String filename = filePath.substring(separator + 1);
+        if (!BLOB_FILENAME.matcher(filename).matches()) {
+            return null;
+        }
+        String hash = filename.substring(0, 64);
+        for (BlobStore store : blobStores) {
+            if (filePath.equals(store.locationOf(blobKey(hash)))) {
+                return hash;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The SHA-256 a file's contents must have, when its name records it
+     * @return the hash for content-addressed blobs, otherwise null
+     */
+    public String expectedHash(String filePath) {
+        return blobHash(filePath);
+    }
+
+    public boolean isBlobPath(String filePath) {
+        return blobHash(filePath) != null;
+    }
+
+    private Object lockFor(String hash) {
+        return blobLocks[Math.floorMod(hash.hashCode(), blobLocks.length)];
+    }
+
+    private MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+
+    private long writeStream(InputStream inputStream, Path tempLocation, MessageDigest digest, long maxSize)
+            throws IOException {
+        ReadableByteChannel source = Channels.newChannel(inputStream);
+        ByteBuffer buffer = ByteBuffer.allocate(STREAM_BUFFER_SIZE);
+        long written = 0;
+        boolean headerChecked = false;
+
+        try (FileChannel target = FileChannel.open(tempLocation,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            while (source.read(buffer) != -1) {
+                // Wait until the whole header has arrived before checking it
+                if (!headerChecked) {
+                    if (buffer.position() < PDF_MAGIC.length) {
+                        continue;
+                    }
+                    checkPdfHeader(buffer);
+                    headerChecked = true;
+                }
+
+                buffer.flip();
+                written += buffer.remaining();
+                if (written > maxSize) {
+                    throw new RuntimeException("File size exceeds maximum limit of 10MB");
+                }
+                digest.update(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+                while (buffer.hasRemaining()) {
+                    target.write(buffer);
+                }
+                buffer.clear();
+            }
+
+            if (!headerChecked) {
+                if (buffer.position() == 0) {
+                    throw new RuntimeException("Cannot upload empty file");
+                }
+                throw new RuntimeException("Only PDF files are allowed");
+            }
+            target.force(true);
+        }
+        return written;
+    }
+
+    private void checkPdfHeader(ByteBuffer buffer) {
+        for (int i = 0; i < PDF_MAGIC.length; i++) {
+            if (buffer.get(i) != PDF_MAGIC[i]) {
+                throw new RuntimeException("Only PDF files are allowed");
+            }
+        }
+    }
+
+    private String generateFilename(String originalFilename, String assignmentCode, String studentEmail) {
+        String fileExtension = getFileExtension(originalFilename);
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
+        String uniqueId = UUID.randomUUID().toString().substring(0, 8);
+        return String.format("%s_%s_%s_%s.%s", 
+            assignmentCode, 
+            studentEmail.replace("@", "_").replace(".", "_"),
+            timestamp,
+            uniqueId,
+            fileExtension
+        );
+    }
+
+    private void deleteQuietly(Path path) {
         try {
-            Path path = Paths.get(filePath);
             Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+            // Leftover temp files are harmless and carry a distinct suffix
+        }
+    }
+
+    /**
+     * Resolves a stored file path without touching the filesystem; a missing file
+     * surfaces as NoSuchFileException when it is opened
+     */
+    public Path loadFile(String filename) {
+        return uploadPath.resolve(filename);
+    }
+
+    /**
+     * Deletes a stored file; content-addressed blobs are only removed once nothing references them
+     */
+    public void deleteFile(String filePath) {
+        try {
+            String hash = blobHash(filePath);
+            if (hash != null) {
+                releaseBlob(hash, filePath);
+                return;
+            }
+            deleteStored(filePath);
         } catch (IOException ex) {
             throw new RuntimeException("Could not delete file: " + filePath, ex);
         }
     }
 
+    // Removes the file in whichever tier it currently sits, along with its tier record
+    private void deleteStored(String location) throws IOException {
+        storeFor(location).delete(location);
+        fileTierRecordRepository.deleteByFilePath(location);
+    }
+
+    /**
+     * Opens a stored file for reading from whichever backend holds it.
+     * Local cold-tier files are decompressed transparently.
+     */
+    public InputStream openStream(String filePath) throws IOException {
+        return storeFor(filePath).open(filePath);
+    }
+
+    /**
+     * A URL the client can download the file from directly, when its backend offers one
+     */
+    public Optional<URI> presignedDownloadUrl(String filePath, String filename, boolean inline) {
+        return storeFor(filePath).presignedDownloadUrl(filePath, filename, inline);
+    }
+
+    public boolean isLocalFile(String filePath) {
+        return localStore.handles(filePath);
+    }
+
+    private BlobStore storeFor(String location) {
+        if (activeStore.handles(location)) {
+            return activeStore;
+        }
+        if (localStore.handles(location)) {
+            return localStore;
+        }
+        throw new RuntimeException("No storage backend for " + location);
+    }
+
+    public static Path compressedPath(Path path) {
+        return FileSystemBlobStore.compressedPath(path);
+    }
+
     public boolean fileExists(String filePath) {
-        Path path = Paths.get(filePath);
-        return Files.exists(path);
+        try {
+            return storeFor(filePath).exists(filePath);
+        } catch (IOException ex) {
+            return false;
+        }
     }
 
     public long getFileSize(String filePath) {
@@ -100,8 +458,16 @@ public class FileStorageService {
             throw new RuntimeException("File size exceeds maximum limit of 10MB");
         }
 
+        validateFilename(file.getOriginalFilename());
+    }
+
+    private void validateFilename(String originalFilename) {
+        if (originalFilename == null || originalFilename.isBlank()) {
+            throw new RuntimeException("Filename is required");
+        }
+
         // Check file extension
-        String filename = StringUtils.cleanPath(file.getOriginalFilename());
+        String filename = StringUtils.cleanPath(originalFilename);
         String extension = getFileExtension(filename);
         
         boolean isValidExtension = false;
@@ -117,7 +483,7 @@ public class FileStorageService {
         }
 
         // Check for invalid characters in filename
-        if (filename.contains("..")) {
+        if (filename.contains("..") || filename.contains("/")) {
             throw new RuntimeException("Filename contains invalid path sequence");
         }
     }
@@ -135,11 +501,35 @@ public class FileStorageService {
         return filename.substring(lastDotIndex + 1);
     }
 
+    public long getMaxFileSize() {
+        return MAX_FILE_SIZE;
+    }
+
     public String getUploadDir() {
         return uploadDir;
     }
 
     public void setUploadDir(String uploadDir) {
         this.uploadDir = uploadDir;
+        localStore.setRoot(Paths.get(uploadDir).toAbsolutePath().normalize());
+        init();
+    }
+
+    // Inner class for the result of a streamed upload
+    public static class StoredFile {
+        private final String path;
+        private final long size;
+        private final String sha256;
+
+        public StoredFile(String path, long size, String sha256) {
+            this.path = path;
+            this.size = size;
+            this.sha256 = sha256;
+        }
+
+        // Getters
+        public String getPath() { return path; }
+        public long getSize() { return size; }
+        public String getSha256() { return sha256; }
     }
-}
\ No newline at end of file
+}
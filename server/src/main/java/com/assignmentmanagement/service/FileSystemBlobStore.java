@@ -0,0 +1,119 @@
+package com.assignmentmanagement.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Local-disk backend rooted at file.upload-dir. Always present: it also holds the upload
+ * spool and any files written before another backend was configured.
+ */
+@Service
+public class FileSystemBlobStore implements BlobStore {
+
+    public static final String NAME = "filesystem";
+
+    private static final String COMPRESSED_SUFFIX = ".gz";
+    private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+
+    @Value("${file.upload-dir:./uploads}")
+    private String uploadDir;
+
+    private Path root;
+
+    // Directories already known to exist; bounded by assignments x 256 shards plus the blob shards
+    private final Set<Path> knownDirectories = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    public void init() {
+        setRoot(Paths.get(uploadDir).toAbsolutePath().normalize());
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public String store(String key, Path source) throws IOException {
+        Path target = root.resolve(key);
+        ensureDirectory(target.getParent());
+        Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        return target.toString();
+    }
+
+    @Override
+    public String locationOf(String key) {
+        return root.resolve(key).toString();
+    }
+
+    @Override
+    public boolean handles(String location) {
+        return !location.contains("://");
+    }
+
+    @Override
+    public boolean exists(String location) {
+        Path path = resolve(location);
+        return Files.exists(path) || Files.exists(compressedPath(path));
+    }
+
+    /**
+     * Opens the file, decompressing it transparently if it has moved to the cold tier
+     */
+    @Override
+    public InputStream open(String location) throws IOException {
+        Path path = resolve(location);
+        try {
+            return Files.newInputStream(path);
+        } catch (NoSuchFileException ex) {
+            return new GZIPInputStream(Files.newInputStream(compressedPath(path)), STREAM_BUFFER_SIZE);
+        }
+    }
+
+    @Override
+    public void delete(String location) throws IOException {
+        Path path = resolve(location);
+        Files.deleteIfExists(path);
+        Files.deleteIfExists(compressedPath(path));
+    }
+
+    public Path resolve(String location) {
+        return root.resolve(location);
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    public void setRoot(Path root) {
+        this.root = root;
+        knownDirectories.clear();
+    }
+
+    /**
+     * Creates a directory the first time it is needed; afterwards the check is a set lookup
+     * instead of a filesystem call
+     */
+    public void ensureDirectory(Path directory) throws IOException {
+        if (!knownDirectories.contains(directory)) {
+            Files.createDirectories(directory);
+            knownDirectories.add(directory);
+        }
+    }
+
+    public static Path compressedPath(Path path) {
+        return path.resolveSibling(path.getFileName() + COMPRESSED_SUFFIX);
+    }
+}
@@ -4,6 +4,8 @@ import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
 import com.google.api.client.googleapis.auth.oauth2.GoogleIdTokenVerifier;
 import com.google.api.client.http.javanet.NetHttpTransport;
 import com.google.api.client.json.gson.GsonFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
@@ -23,6 +25,8 @@ import java.util.Map;
 @Service
 public class GoogleAuthService {
 
+    private static final Logger logger = LoggerFactory.getLogger(GoogleAuthService.class);
+
     @Value("${spring.security.oauth2.client.registration.google.client-id}")
     private String googleClientId;
 
@@ -52,12 +56,7 @@ public class GoogleAuthService {
     public String exchangeCodeForToken(String code, String redirectUri) throws IOException {
         String tokenUrl = "https://oauth2.googleapis.com/token";
         
-        // Debug logging
-        System.out.println("=== TOKEN EXCHANGE DEBUG ===");
-        System.out.println("Code: " + (code != null ? code.substring(0, Math.min(code.length(), 20)) + "..." : "null"));
-        System.out.println("Redirect URI: " + redirectUri);
-        System.out.println("Client ID: " + googleClientId);
-        System.out.println("Client Secret: " + (googleClientSecret != null ? googleClientSecret.substring(0, 10) + "..." : "null"));
+        logger.debug("Exchanging authorization code for token (redirect URI: {}, client ID: {})", redirectUri, googleClientId);
         
         // Create proper form-encoded request
         MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
@@ -80,14 +79,14 @@ public class GoogleAuthService {
             Map<String, Object> responseBody = (Map<String, Object>) response.getBody();
             
             if (responseBody != null && responseBody.containsKey("access_token")) {
-                System.out.println("Token exchange successful!");
+                logger.debug("Token exchange successful");
                 return (String) responseBody.get("access_token");
             } else {
-                System.out.println("Token exchange failed. Response: " + responseBody);
+                logger.warn("Token exchange failed. Response: {}", responseBody);
                 throw new IOException("Failed to exchange authorization code for access token. Response: " + responseBody);
             }
         } catch (Exception e) {
-            System.out.println("Token exchange error: " + e.getMessage());
+            logger.warn("Token exchange error: {}", e.getMessage());
             throw new IOException("Error during token exchange: " + e.getMessage(), e);
         }
     }
@@ -117,11 +116,11 @@ public class GoogleAuthService {
                 payload.set("picture", userInfo.get("picture"));
                 return payload;
             } else {
-                System.out.println("User info retrieval failed. Response: " + userInfo);
+                logger.warn("User info retrieval failed. Response: {}", userInfo);
                 throw new IOException("Failed to get user info from access token. Response: " + userInfo);
             }
         } catch (Exception e) {
-            System.out.println("User info retrieval error: " + e.getMessage());
+            logger.warn("User info retrieval error: {}", e.getMessage());
             throw new IOException("Error getting user info: " + e.getMessage(), e);
         }
     }
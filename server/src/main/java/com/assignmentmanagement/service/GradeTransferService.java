@@ -0,0 +1,199 @@
+package com.assignmentmanagement.service;
+
+import com.assignmentmanagement.dto.BulkGradeRequest;
+import com.assignmentmanagement.dto.SubmissionSummary;
+import com.assignmentmanagement.model.User;
+import com.assignmentmanagement.repository.SubmissionRepository;
+import com.assignmentmanagement.util.CsvUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Grade export and import as CSV.
+ * Export streams a projection of the assignment's submissions from a forward-only MySQL
+ * result set straight into the response, so no entities are kept and memory stays flat.
+ * Import reads the upload record by record and applies it in chunks through the bulk
+ * grading path, each chunk in its own transaction, collecting errors per row.
+ */
+@Service
+public class GradeTransferService {
+
+    private static final String[] EXPORT_HEADER = {
+        "submissionId", "studentName", "studentEmail", "submittedAt", "late", "status", "marks", "feedback"
+    };
+    private static final int FLUSH_EVERY_ROWS = 500;
+    // Enough to fix a bad file without letting the report itself grow with it
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    @Autowired
+    private SubmissionRepository submissionRepository;
+
+    @Autowired
+    private SubmissionService submissionService;
+
+    @Value("${submission.grade-import.chunk-size:500}")
+    private int chunkSize;
+
+    /**
+     * Writes the assignment's submissions as CSV
+     * @return the number of rows written
+     */
+    @Transactional(readOnly = true)
+    public int exportGrades(Long assignmentId, Writer writer) throws IOException {
+        CsvUtils.writeRow(writer, (Object[]) EXPORT_HEADER);
+        int rows = 0;
+        try (Stream<SubmissionSummary> summaries = submissionRepository.streamSummariesByAssignment(assignmentId)) {
+            Iterator<SubmissionSummary> iterator = summaries.iterator();
+            while (iterator.hasNext()) {
+                SubmissionSummary summary = iterator.next();
+                CsvUtils.writeRow(writer, summary.getId(), summary.getStudentName(), summary.getStudentEmail(),
+                    summary.getSubmittedAt(), Boolean.TRUE.equals(summary.getIsLateSubmission()),
+                    summary.getStatus(), summary.getMarksObtained(), summary.getFeedback());
+                if (++rows % FLUSH_EVERY_ROWS == 0) {
+                    writer.flush();
+                }
+            }
+        }
+        writer.flush();
+        return rows;
+    }
+
+    /**
+     * Applies grades from a CSV with at least submissionId and marks columns; feedback is optional.
+     * Rows with empty marks are skipped, so an exported file can be re-imported as it is.
+     * Without a feedback column, or with an empty feedback cell, existing feedback is kept.
+     */
+    public ImportResult importGrades(Long assignmentId, Reader reader, User gradedBy) throws IOException {
+        ImportResult result = new ImportResult();
+        try (CsvUtils.RecordReader records = new CsvUtils.RecordReader(reader)) {
+            List<String> header = records.next();
+            if (header == null) {
+                throw new RuntimeException("The file is empty");
+            }
+            int idColumn = indexOf(header, "submissionid");
+            int marksColumn = indexOf(header, "marks");
+            int feedbackColumn = indexOf(header, "feedback");
+            if (idColumn == -1 || marksColumn == -1) {
+                throw new RuntimeException("The header must contain submissionId and marks columns");
+            }
+
+            List<BulkGradeRequest.Item> chunk = new ArrayList<>(chunkSize);
+            List<Integer> chunkLines = new ArrayList<>(chunkSize);
+            List<String> record;
+            while ((record = records.next()) != null) {
+                int line = records.getRecordLine();
+                if (record.size() == 1 && record.get(0).isBlank()) {
+                    continue;
+                }
+                result.rowsRead++;
+
+                String marks = field(record, marksColumn);
+                if (marks.isEmpty()) {
+                    result.skipped++;
+                    continue;
+                }
+                try {
+                    String feedback = feedbackColumn != -1 ? field(record, feedbackColumn) : null;
+                    chunk.add(new BulkGradeRequest.Item(Long.parseLong(field(record, idColumn)),
+                        Integer.parseInt(marks), feedback != null && !feedback.isEmpty() ? feedback : null));
+                    chunkLines.add(line);
+                } catch (NumberFormatException ex) {
+                    result.addError(line, null, "submissionId and marks must be whole numbers");
+                    continue;
+                }
+
+                if (chunk.size() >= Math.min(chunkSize, SubmissionService.MAX_BULK_GRADE_ITEMS)) {
+                    applyChunk(assignmentId, chunk, chunkLines, gradedBy, result);
+                }
+            }
+            applyChunk(assignmentId, chunk, chunkLines, gradedBy, result);
+        }
+        return result;
+    }
+
+    private void applyChunk(Long assignmentId, List<BulkGradeRequest.Item> chunk, List<Integer> lines,
+                            User gradedBy, ImportResult result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        SubmissionService.BulkGradeResult chunkResult = submissionService.gradeSubmissionsBulk(assignmentId, chunk, gradedBy, true);
+        List<SubmissionService.GradeItemResult> items = chunkResult.getResults();
+        for (int i = 0; i < items.size(); i++) {
+            SubmissionService.GradeItemResult item = items.get(i);
+            if (item.isSuccess()) {
+                result.graded++;
+            } else {
+                result.addError(lines.get(i), item.getSubmissionId(), item.getError());
+            }
+        }
+        chunk.clear();
+        lines.clear();
+    }
+
+    private int indexOf(List<String> header, String name) {
+        for (int i = 0; i < header.size(); i++) {
+            // Spreadsheet exports often start with a byte order mark
+            String column = header.get(i).replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT);
+            if (column.equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private String field(List<String> record, int index) {
+        return index < record.size() ? CsvUtils.unescapeCell(record.get(index).trim()) : "";
+    }
+
+    // Inner class for an import's outcome
+    public static class ImportResult {
+        private int rowsRead;
+        private int graded;
+        private int skipped;
+        private int failed;
+        private final List<RowError> errors = new ArrayList<>();
+
+        void addError(int line, Long submissionId, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new RowError(line, submissionId, message));
+            }
+        }
+
+        // Getters
+        public int getRowsRead() { return rowsRead; }
+        public int getGraded() { return graded; }
+        public int getSkipped() { return skipped; }
+        public int getFailed() { return failed; }
+        public List<RowError> getErrors() { return errors; }
+    }
+
+    // Inner class for one rejected row
+    public static class RowError {
+        private final int line;
+        private final Long submissionId;
+        private final String message;
+
+        public RowError(int line, Long submissionId, String message) {
+            this.line = line;
+            this.submissionId = submissionId;
+            this.message = message;
+        }
+
+        // Getters
+        public int getLine() { return line; }
+        public Long getSubmissionId() { return submissionId; }
+        public String getMessage() { return message; }
+    }
+}
@@ -0,0 +1,39 @@
+package com.assignmentmanagement.service;
+
+import com.assignmentmanagement.model.Submission;
+import com.assignmentmanagement.repository.SubmissionRepository;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+
+/**
+ * Parses the PDF and records its page count; fails the job for files PDFBox cannot open
+ */
+@Component
+@Order(2)
+public class PageCountStage implements SubmissionStage {
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Autowired
+    private SubmissionRepository submissionRepository;
+
+    @Override
+    public String getName() {
+        return "page-count";
+    }
+
+    @Override
+    public void process(Submission submission) throws Exception {
+        try (InputStream in = fileStorageService.openStream(submission.getFilePath());
+             // Spool the parsed document to temp files instead of the heap
+             PDDocument document = PDDocument.load(in, MemoryUsageSetting.setupTempFileOnly())) {
+            submissionRepository.updatePageCount(submission.getId(), document.getNumberOfPages());
+        }
+    }
+}
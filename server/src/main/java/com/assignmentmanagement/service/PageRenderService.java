@@ -0,0 +1,268 @@
+package com.assignmentmanagement.service;
+
+import jakarta.annotation.PostConstruct;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Renders PDF pages to small JPEGs for grading previews and keeps them in an on-disk cache.
+ * Entries are keyed by the stored file path, so a replaced corrected file gets fresh images,
+ * and the cache is trimmed least-recently-used first once it exceeds its byte budget.
+ */
+@Service
+public class PageRenderService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PageRenderService.class);
+
+    private static final String EXTENSION = ".jpg";
+    private static final float POINTS_PER_INCH = 72f;
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Value("${file.render-cache.dir:./render-cache}")
+    private String cacheDir;
+
+    @Value("${file.render-cache.max-bytes:268435456}")
+    private long maxBytes;
+
+    @Value("${file.render-cache.thumbnail-width:200}")
+    private int thumbnailWidth;
+
+    @Value("${file.render-cache.page-dpi:96}")
+    private int pageDpi;
+
+    @Value("${file.render-cache.max-concurrent-renders:2}")
+    private int maxConcurrentRenders;
+
+    private Path cacheRoot;
+    private Semaphore renderPermits;
+
+    // Access-ordered, so iteration starts at the least recently used entry
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long totalBytes;
+
+    private final Map<String, Object> renderLocks = new ConcurrentHashMap<>();
+
+    public enum Variant {
+        THUMBNAIL, PAGE
+    }
+
+    @PostConstruct
+    public void init() {
+        cacheRoot = Paths.get(cacheDir).toAbsolutePath().normalize();
+        renderPermits = new Semaphore(Math.max(1, maxConcurrentRenders));
+        try {
+            Files.createDirectories(cacheRoot);
+            // Rebuild the LRU order from modification times left by the previous run
+            List<Path> existing;
+            try (Stream<Path> files = Files.list(cacheRoot)) {
+                existing = files.filter(file -> file.getFileName().toString().endsWith(EXTENSION))
+                    .sorted(Comparator.comparingLong(this::lastModified))
+                    .collect(Collectors.toList());
+            }
+            synchronized (entries) {
+                for (Path file : existing) {
+                    long size = Files.size(file);
+                    entries.put(file.getFileName().toString(), size);
+                    totalBytes += size;
+                }
+                evictOverBudget();
+            }
+        } catch (IOException ex) {
+            throw new RuntimeException("Could not initialize render cache at " + cacheRoot, ex);
+        }
+    }
+
+    /**
+     * Returns the rendered image for a 1-based page, rendering it on a cache miss
+     * @throws NoSuchFileException if the PDF or the page does not exist
+     */
+    public RenderedPage getPage(String filePath, int pageNumber, Variant variant) throws IOException {
+        String key = cacheKey(filePath, pageNumber, variant);
+        byte[] cached = readCached(key);
+        if (cached != null) {
+            return new RenderedPage(key, cached);
+        }
+
+        // Concurrent requests for the same page wait for one render instead of repeating it
+        Object lock = renderLocks.computeIfAbsent(key, k -> new Object());
+        try {
+            synchronized (lock) {
+                cached = readCached(key);
+                if (cached != null) {
+                    return new RenderedPage(key, cached);
+                }
+                try (PDDocument document = load(filePath)) {
+                    if (pageNumber < 1 || pageNumber > document.getNumberOfPages()) {
+                        throw new NoSuchFileException("Page " + pageNumber + " does not exist");
+                    }
+                    return new RenderedPage(key, render(document, pageNumber, variant, key));
+                }
+            }
+        } finally {
+            renderLocks.remove(key);
+        }
+    }
+
+    /**
+     * Renders the thumbnails of the first pages ahead of time, opening the document once
+     */
+    public void prerenderThumbnails(String filePath, int pages) throws IOException {
+        try (PDDocument document = load(filePath)) {
+            int last = Math.min(pages, document.getNumberOfPages());
+            for (int pageNumber = 1; pageNumber <= last; pageNumber++) {
+                String key = cacheKey(filePath, pageNumber, Variant.THUMBNAIL);
+                if (readCached(key) == null) {
+                    render(document, pageNumber, Variant.THUMBNAIL, key);
+                }
+            }
+        }
+    }
+
+    private PDDocument load(String filePath) throws IOException {
+        try (InputStream in = fileStorageService.openStream(filePath)) {
+            return PDDocument.load(in, MemoryUsageSetting.setupTempFileOnly());
+        }
+    }
+
+    private byte[] render(PDDocument document, int pageNumber, Variant variant, String key) throws IOException {
+        int pageIndex = pageNumber - 1;
+        float scale;
+        if (variant == Variant.THUMBNAIL) {
+            PDRectangle box = document.getPage(pageIndex).getCropBox();
+            scale = box.getWidth() > 0 ? thumbnailWidth / box.getWidth() : 1f;
+        } else {
+            scale = pageDpi / POINTS_PER_INCH;
+        }
+
+        BufferedImage image;
+        renderPermits.acquireUninterruptibly();
+        try {
+            image = new PDFRenderer(document).renderImage(pageIndex, scale, ImageType.RGB);
+        } finally {
+            renderPermits.release();
+        }
+
+        Path target = cacheRoot.resolve(key);
+        Path temp = cacheRoot.resolve("." + UUID.randomUUID() + ".part");
+        try {
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                ImageIO.write(image, "jpg", out);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+
+        byte[] data = Files.readAllBytes(target);
+        synchronized (entries) {
+            Long previous = entries.put(key, (long) data.length);
+            totalBytes += data.length - (previous != null ? previous : 0L);
+            evictOverBudget();
+        }
+        return data;
+    }
+
+    private byte[] readCached(String key) {
+        synchronized (entries) {
+            if (entries.get(key) == null) {
+                return null;
+            }
+        }
+        try {
+            return Files.readAllBytes(cacheRoot.resolve(key));
+        } catch (IOException ex) {
+            // Removed underneath us; forget it and render again
+            synchronized (entries) {
+                Long size = entries.remove(key);
+                if (size != null) {
+                    totalBytes -= size;
+                }
+            }
+            return null;
+        }
+    }
+
+    // Caller holds the entries lock
+    private void evictOverBudget() {
+        Iterator<Map.Entry<String, Long>> iterator = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && iterator.hasNext()) {
+            Map.Entry<String, Long> eldest = iterator.next();
+            try {
+                Files.deleteIfExists(cacheRoot.resolve(eldest.getKey()));
+            } catch (IOException ex) {
+                logger.warn("Could not evict cached page {}: {}", eldest.getKey(), ex.getMessage());
+            }
+            totalBytes -= eldest.getValue();
+            iterator.remove();
+        }
+    }
+
+    private String cacheKey(String filePath, int pageNumber, Variant variant) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(filePath.getBytes(StandardCharsets.UTF_8));
+            String size = variant == Variant.THUMBNAIL ? "t" + thumbnailWidth : "p" + pageDpi;
+            return HexFormat.of().formatHex(hash, 0, 16) + "-" + size + "-" + pageNumber + EXTENSION;
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+
+    private long lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException ex) {
+            return 0L;
+        }
+    }
+
+    // Inner class for a rendered page image
+    public static class RenderedPage {
+        private final String key;
+        private final byte[] data;
+
+        public RenderedPage(String key, byte[] data) {
+            this.key = key;
+            this.data = data;
+        }
+
+        // Getters
+        public String getKey() { return key; }
+        public byte[] getData() { return data; }
+        public String getETag() { return "\"" + key.substring(0, key.length() - EXTENSION.length()) + "\""; }
+    }
+}
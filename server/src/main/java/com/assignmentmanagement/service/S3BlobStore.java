@@ -0,0 +1,250 @@
+package com.assignmentmanagement.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * S3-protocol backend; works against AWS or any S3-compatible server such as MinIO
+ * (set file.s3.endpoint and keep path-style access on).
+ * Files above the part size are sent as a multipart upload, one part buffer at a time,
+ * and downloads are handed to the client as presigned GET URLs.
+ */
+@Service
+@ConditionalOnProperty(name = "file.blob-store", havingValue = "s3")
+public class S3BlobStore implements BlobStore {
+
+    public static final String NAME = "s3";
+
+    private static final String SCHEME = "s3://";
+    private static final String CONTENT_TYPE = "application/pdf";
+    // S3 rejects multipart parts under 5MB except for the last one
+    private static final int MIN_PART_SIZE = 5 * 1024 * 1024;
+
+    @Value("${file.s3.bucket}")
+    private String bucket;
+
+    @Value("${file.s3.region:us-east-1}")
+    private String region;
+
+    @Value("${file.s3.endpoint:}")
+    private String endpoint;
+
+    @Value("${file.s3.access-key:}")
+    private String accessKey;
+
+    @Value("${file.s3.secret-key:}")
+    private String secretKey;
+
+    @Value("${file.s3.path-style-access:true}")
+    private boolean pathStyleAccess;
+
+    @Value("${file.s3.part-size:8388608}")
+    private int partSize;
+
+    @Value("${file.s3.presign-ttl-seconds:300}")
+    private long presignTtlSeconds;
+
+    private S3Client client;
+    private S3Presigner presigner;
+
+    @PostConstruct
+    public void init() {
+        AwsCredentialsProvider credentials = accessKey.isEmpty()
+            ? DefaultCredentialsProvider.create()
+            : StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKey, secretKey));
+        S3Configuration configuration = S3Configuration.builder()
+            .pathStyleAccessEnabled(pathStyleAccess)
+            .build();
+
+        var clientBuilder = S3Client.builder()
+            .region(Region.of(region))
+            .credentialsProvider(credentials)
+            .serviceConfiguration(configuration);
+        var presignerBuilder = S3Presigner.builder()
+            .region(Region.of(region))
+            .credentialsProvider(credentials)
+            .serviceConfiguration(configuration);
+        if (!endpoint.isEmpty()) {
+            clientBuilder.endpointOverride(URI.create(endpoint));
+            presignerBuilder.endpointOverride(URI.create(endpoint));
+        }
+        client = clientBuilder.build();
+        presigner = presignerBuilder.build();
+        partSize = Math.max(partSize, MIN_PART_SIZE);
+    }
+
+    @PreDestroy
+    public void close() {
+        client.close();
+        presigner.close();
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public String store(String key, Path source) throws IOException {
+        long size = Files.size(source);
+        try {
+            if (size <= partSize) {
+                client.putObject(PutObjectRequest.builder().bucket(bucket).key(key).contentType(CONTENT_TYPE).build(),
+                    RequestBody.fromFile(source));
+            } else {
+                uploadMultipart(key, source, size);
+            }
+        } catch (S3Exception ex) {
+            throw new IOException("Could not upload " + key + ": " + ex.getMessage(), ex);
+        }
+        Files.deleteIfExists(source);
+        return locationOf(key);
+    }
+
+    private void uploadMultipart(String key, Path source, long size) throws IOException {
+        String uploadId = client.createMultipartUpload(CreateMultipartUploadRequest.builder()
+            .bucket(bucket).key(key).contentType(CONTENT_TYPE).build()).uploadId();
+
+        List<CompletedPart> parts = new ArrayList<>();
+        // One reusable part buffer bounds the heap used per upload
+        byte[] partBuffer = new byte[partSize];
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            int partNumber = 1;
+            long position = 0;
+            while (position < size) {
+                int length = readPart(channel, partBuffer, position);
+                String etag = client.uploadPart(UploadPartRequest.builder()
+                        .bucket(bucket).key(key).uploadId(uploadId)
+                        .partNumber(partNumber).contentLength((long) length).build(),
+                    RequestBody.fromContentProvider(() -> new ByteArrayInputStream(partBuffer, 0, length),
+                        length, CONTENT_TYPE)).eTag();
+                parts.add(CompletedPart.builder().partNumber(partNumber).eTag(etag).build());
+                position += length;
+                partNumber++;
+            }
+
+            client.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                .bucket(bucket).key(key).uploadId(uploadId)
+                .multipartUpload(CompletedMultipartUpload.builder().parts(parts).build())
+                .build());
+        } catch (IOException | RuntimeException ex) {
+            client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                .bucket(bucket).key(key).uploadId(uploadId).build());
+            throw ex;
+        }
+    }
+
+    private int readPart(FileChannel channel, byte[] partBuffer, long position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(partBuffer);
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read == -1) {
+                break;
+            }
+        }
+        return buffer.position();
+    }
+
+    @Override
+    public String locationOf(String key) {
+        return SCHEME + bucket + "/" + key;
+    }
+
+    @Override
+    public boolean handles(String location) {
+        return location.startsWith(SCHEME + bucket + "/");
+    }
+
+    @Override
+    public boolean exists(String location) throws IOException {
+        try {
+            client.headObject(HeadObjectRequest.builder().bucket(bucket).key(keyOf(location)).build());
+            return true;
+        } catch (S3Exception ex) {
+            if (ex.statusCode() == 404) {
+                return false;
+            }
+            throw new IOException("Could not check " + location + ": " + ex.getMessage(), ex);
+        }
+    }
+
+    @Override
+    public InputStream open(String location) throws IOException {
+        try {
+            return client.getObject(GetObjectRequest.builder().bucket(bucket).key(keyOf(location)).build());
+        } catch (S3Exception ex) {
+            throw new IOException("Could not open " + location + ": " + ex.getMessage(), ex);
+        }
+    }
+
+    @Override
+    public void delete(String location) throws IOException {
+        try {
+            client.deleteObject(DeleteObjectRequest.builder().bucket(bucket).key(keyOf(location)).build());
+        } catch (S3Exception ex) {
+            throw new IOException("Could not delete " + location + ": " + ex.getMessage(), ex);
+        }
+    }
+
+    @Override
+    public Optional<URI> presignedDownloadUrl(String location, String filename, boolean inline) {
+        GetObjectRequest getObject = GetObjectRequest.builder()
+            .bucket(bucket)
+            .key(keyOf(location))
+            .responseContentType(CONTENT_TYPE)
+            .responseContentDisposition((inline ? "inline" : "attachment") + "; filename=\"" + filename + "\"")
+            .build();
+        GetObjectPresignRequest presignRequest = GetObjectPresignRequest.builder()
+            .signatureDuration(Duration.ofSeconds(presignTtlSeconds))
+            .getObjectRequest(getObject)
+            .build();
+        try {
+            return Optional.of(presigner.presignGetObject(presignRequest).url().toURI());
+        } catch (URISyntaxException ex) {
+            return Optional.empty();
+        }
+    }
+
+    private String keyOf(String location) {
+        return location.substring((SCHEME + bucket + "/").length());
+    }
+}
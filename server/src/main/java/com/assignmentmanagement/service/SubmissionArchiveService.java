@@ -0,0 +1,140 @@
+package com.assignmentmanagement.service;
+
+import com.assignmentmanagement.repository.SubmissionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Streams every file of an assignment's submissions as one ZIP, written straight to the response.
+ * PDFs barely compress, so entries are STORED: each file is read once to get its CRC and size
+ * for the local header and then again to copy it out, through one fixed buffer and without temp
+ * files. Entries follow submission id order (original, then corrected file), and each entry's
+ * folder ends in its submission id, so an interrupted download can resume after the last entry
+ * it received even if submissions were added or removed in between.
+ */
+@Service
+public class SubmissionArchiveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SubmissionArchiveService.class);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Autowired
+    private SubmissionRepository submissionRepository;
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Value("${submission.archive.page-size:200}")
+    private int pageSize;
+
+    /**
+     * Writes the archive, resuming after the given entry if one is given
+     * @param afterSubmission submission id of the last entry received, or null for the whole archive
+     * @param afterCorrected whether that entry was the submission's corrected file
+     * @return the number of entries written
+     */
+    public int writeArchive(Long assignmentId, Long afterSubmission, boolean afterCorrected,
+                            OutputStream output) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(output, BUFFER_SIZE));
+        zip.setMethod(ZipOutputStream.STORED);
+
+        int written = 0;
+        // One below the resume point, so its corrected file is still reached
+        Long lastId = afterSubmission != null ? afterSubmission - 1 : 0L;
+        while (true) {
+            // Paged rather than streamed, and the endpoint is kept out of open-in-view (see WebConfig),
+            // so no connection is held while a slow client downloads
+            List<Object[]> rows = submissionRepository.findArchiveRowsAfter(assignmentId, lastId,
+                PageRequest.of(0, pageSize));
+            if (rows.isEmpty()) {
+                break;
+            }
+            for (Object[] row : rows) {
+                Long id = (Long) row[0];
+                lastId = id;
+                String folder = safeName(row[2] + "_" + row[1]) + "_" + id + "/";
+                LocalDateTime submittedAt = (LocalDateTime) row[7];
+
+                boolean resumeRow = id.equals(afterSubmission);
+                String[][] files = {
+                    {(String) row[4], folder + safeName((String) row[3])},
+                    {(String) row[6], folder + "corrected_" + safeName((String) row[5])}
+                };
+                for (int i = resumeRow ? (afterCorrected ? files.length : 1) : 0; i < files.length; i++) {
+                    String[] file = files[i];
+                    if (file[0] == null || file[0].isEmpty()) {
+                        continue;
+                    }
+                    if (writeEntry(zip, file[0], file[1], submittedAt, buffer)) {
+                        written++;
+                    }
+                }
+            }
+        }
+        zip.finish();
+        zip.flush();
+        return written;
+    }
+
+    private boolean writeEntry(ZipOutputStream zip, String filePath, String entryName,
+                               LocalDateTime submittedAt, byte[] buffer) throws IOException {
+        CRC32 crc = new CRC32();
+        long size = 0;
+        try (InputStream in = fileStorageService.openStream(filePath)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                crc.update(buffer, 0, read);
+                size += read;
+            }
+        } catch (IOException | RuntimeException ex) {
+            // Nothing has been written for this entry yet, so it can be left out cleanly
+            logger.warn("Leaving {} out of the archive: {}", entryName, ex.getMessage());
+            return false;
+        }
+
+        ZipEntry entry = new ZipEntry(entryName);
+        entry.setMethod(ZipEntry.STORED);
+        entry.setSize(size);
+        entry.setCompressedSize(size);
+        entry.setCrc(crc.getValue());
+        if (submittedAt != null) {
+            entry.setTimeLocal(submittedAt);
+        }
+
+        // A file replaced between the two passes fails the size or CRC check and ends the archive;
+        // the client resumes after the entry before this one
+        zip.putNextEntry(entry);
+        try (InputStream in = fileStorageService.openStream(filePath)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                zip.write(buffer, 0, read);
+            }
+        }
+        zip.closeEntry();
+        return true;
+    }
+
+    private String safeName(String name) {
+        if (name == null || name.isBlank()) {
+            return "file.pdf";
+        }
+        String cleaned = name.replaceAll("[\\\\/:*?\"<>|\\p{Cntrl}]", "_").trim();
+        return cleaned.isEmpty() || cleaned.startsWith(".") ? "_" + cleaned : cleaned;
+    }
+}
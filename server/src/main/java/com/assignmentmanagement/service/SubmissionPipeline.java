@@ -0,0 +1,276 @@
+package com.assignmentmanagement.service;
+
+import com.assignmentmanagement.model.JobStatus;
+import com.assignmentmanagement.model.ProcessingStatus;
+import com.assignmentmanagement.model.Submission;
+import com.assignmentmanagement.model.SubmissionJob;
+import com.assignmentmanagement.repository.SubmissionJobRepository;
+import com.assignmentmanagement.repository.SubmissionRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs the post-upload stages for each submission off the request thread.
+ * Work is recorded in submission_jobs so it survives restarts; a poller claims queued jobs
+ * with a conditional update (safe across nodes) but only as many as the bounded worker
+ * queue has room for, so a burst of uploads backs up in the table rather than the heap.
+ */
+@Service
+public class SubmissionPipeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(SubmissionPipeline.class);
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    @Autowired
+    private SubmissionJobRepository jobRepository;
+
+    @Autowired
+    private SubmissionRepository submissionRepository;
+
+    @Autowired
+    private List<SubmissionStage> stages;
+
+    @Value("${submission.pipeline.enabled:true}")
+    private boolean enabled;
+
+    @Value("${submission.pipeline.workers:2}")
+    private int workers;
+
+    @Value("${submission.pipeline.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${submission.pipeline.lease-ms:300000}")
+    private long leaseMs;
+
+    @Value("${submission.pipeline.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${submission.pipeline.retry-backoff-ms:30000}")
+    private long retryBackoffMs;
+
+    private ThreadPoolExecutor executor;
+
+    private final Map<String, StageMetrics> stageMetrics = new LinkedHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                Thread thread = new Thread(runnable, "submission-pipeline-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        for (SubmissionStage stage : stages) {
+            stageMetrics.put(stage.getName(), new StageMetrics());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Running jobs keep their lease and are picked up again after it expires
+        executor.shutdownNow();
+    }
+
+    /**
+     * Records a job for a freshly stored submission; it is picked up by the next poll
+     */
+    public void enqueue(Submission submission) {
+        jobRepository.save(new SubmissionJob(submission.getId()));
+    }
+
+    @Scheduled(fixedDelayString = "${submission.pipeline.poll-interval-ms:1000}")
+    public void poll() {
+        if (!enabled) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        // A file that kills or hangs the worker would otherwise be retried forever
+        for (Object[] row : jobRepository.findExhaustedExpiredLeases(now, maxAttempts)) {
+            if (jobRepository.failExpiredLease((Long) row[0], "Lease expired after " + maxAttempts + " attempts", now) == 1) {
+                submissionRepository.updateProcessingStatus((Long) row[1], ProcessingStatus.FAILED);
+                logger.error("Submission {} failed: worker lease expired after {} attempts", row[1], maxAttempts);
+            }
+        }
+        int recovered = jobRepository.requeueExpiredLeases(now, maxAttempts);
+        if (recovered > 0) {
+            logger.warn("Requeued {} submission jobs with expired leases", recovered);
+        }
+
+        int free = executor.getQueue().remainingCapacity();
+        if (free <= 0) {
+            return;
+        }
+
+        LocalDateTime leaseExpiresAt = now.plus(Duration.ofMillis(leaseMs));
+        for (Long jobId : jobRepository.findClaimableIds(now, PageRequest.of(0, free))) {
+            if (jobRepository.claim(jobId, leaseExpiresAt, now) == 0) {
+                continue;
+            }
+            try {
+                executor.execute(() -> run(jobId));
+            } catch (RejectedExecutionException ex) {
+                // Shutting down; the lease expiry hands the job to the next poll
+                break;
+            }
+        }
+    }
+
+    private void run(Long jobId) {
+        Optional<SubmissionJob> jobOpt = jobRepository.findById(jobId);
+        if (jobOpt.isEmpty()) {
+            return;
+        }
+        SubmissionJob job = jobOpt.get();
+
+        Optional<Submission> submissionOpt = submissionRepository.findById(job.getSubmissionId());
+        if (submissionOpt.isEmpty()) {
+            // Submission was deleted while queued
+            job.setStatus(JobStatus.DONE);
+            jobRepository.save(job);
+            return;
+        }
+        Submission submission = submissionOpt.get();
+        submissionRepository.updateProcessingStatus(submission.getId(), ProcessingStatus.PROCESSING);
+
+        while (job.getStageIndex() < stages.size()) {
+            SubmissionStage stage = stages.get(job.getStageIndex());
+            StageMetrics metrics = stageMetrics.get(stage.getName());
+            long started = System.nanoTime();
+            try {
+                stage.process(submission);
+                metrics.record(System.nanoTime() - started, true);
+            } catch (Exception ex) {
+                metrics.record(System.nanoTime() - started, false);
+                fail(job, submission, stage, ex);
+                return;
+            }
+
+            job.setStageIndex(job.getStageIndex() + 1);
+            job.setLeaseExpiresAt(LocalDateTime.now().plus(Duration.ofMillis(leaseMs)));
+            job = jobRepository.save(job);
+        }
+
+        job.setStatus(JobStatus.DONE);
+        job.setLastError(null);
+        jobRepository.save(job);
+        submissionRepository.updateProcessingStatus(submission.getId(), ProcessingStatus.COMPLETED);
+    }
+
+    private void fail(SubmissionJob job, Submission submission, SubmissionStage stage, Exception ex) {
+        String error = stage.getName() + ": " + ex.getMessage();
+        job.setLastError(error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+
+        if (job.getAttempts() < maxAttempts) {
+            job.setStatus(JobStatus.QUEUED);
+            job.setAvailableAt(LocalDateTime.now().plus(Duration.ofMillis(retryBackoffMs * job.getAttempts())));
+            logger.warn("Submission {} failed stage {} (attempt {}), will retry: {}",
+                submission.getId(), stage.getName(), job.getAttempts(), ex.getMessage());
+        } else {
+            job.setStatus(JobStatus.FAILED);
+            submissionRepository.updateProcessingStatus(submission.getId(), ProcessingStatus.FAILED);
+            logger.error("Submission {} failed stage {} after {} attempts: {}",
+                submission.getId(), stage.getName(), job.getAttempts(), ex.getMessage());
+        }
+        jobRepository.save(job);
+    }
+
+    public PipelineMetrics getMetrics() {
+        Map<JobStatus, Long> jobs = new EnumMap<>(JobStatus.class);
+        for (Object[] row : jobRepository.countByStatus()) {
+            jobs.put((JobStatus) row[0], (Long) row[1]);
+        }
+        Map<String, StageSnapshot> stageSnapshots = new LinkedHashMap<>();
+        stageMetrics.forEach((name, metrics) -> stageSnapshots.put(name, metrics.snapshot()));
+        return new PipelineMetrics(executor.getActiveCount(), executor.getQueue().size(), queueCapacity,
+            jobs, stageSnapshots);
+    }
+
+    private static class StageMetrics {
+        private final AtomicLong completed = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final AtomicLong totalNanos = new AtomicLong();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        void record(long nanos, boolean success) {
+            (success ? completed : failed).incrementAndGet();
+            totalNanos.addAndGet(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        StageSnapshot snapshot() {
+            long runs = completed.get() + failed.get();
+            double averageMs = runs > 0 ? totalNanos.get() / 1_000_000.0 / runs : 0;
+            return new StageSnapshot(completed.get(), failed.get(), averageMs, maxNanos.get() / 1_000_000.0);
+        }
+    }
+
+    // Inner class for per-stage latency statistics
+    public static class StageSnapshot {
+        private final long completed;
+        private final long failed;
+        private final double averageMs;
+        private final double maxMs;
+
+        public StageSnapshot(long completed, long failed, double averageMs, double maxMs) {
+            this.completed = completed;
+            this.failed = failed;
+            this.averageMs = averageMs;
+            this.maxMs = maxMs;
+        }
+
+        // Getters
+        public long getCompleted() { return completed; }
+        public long getFailed() { return failed; }
+        public double getAverageMs() { return averageMs; }
+        public double getMaxMs() { return maxMs; }
+    }
+
+    // Inner class for pipeline statistics
+    public static class PipelineMetrics {
+        private final int activeWorkers;
+        private final int queueDepth;
+        private final int queueCapacity;
+        private final Map<JobStatus, Long> jobs;
+        private final Map<String, StageSnapshot> stages;
+
+        public PipelineMetrics(int activeWorkers, int queueDepth, int queueCapacity,
+                               Map<JobStatus, Long> jobs, Map<String, StageSnapshot> stages) {
+            this.activeWorkers = activeWorkers;
+            this.queueDepth = queueDepth;
+            this.queueCapacity = queueCapacity;
+            this.jobs = jobs;
+            this.stages = stages;
+        }
+
+        // Getters
+        public int getActiveWorkers() { return activeWorkers; }
+        public int getQueueDepth() { return queueDepth; }
+        public int getQueueCapacity() { return queueCapacity; }
+        public Map<JobStatus, Long> getJobs() { return jobs; }
+        public Map<String, StageSnapshot> getStages() { return stages; }
+    }
+}
@@ -1,24 +1,71 @@
 package com.assignmentmanagement.service;
 
+import com.assignmentmanagement.dto.BulkGradeRequest;
+import com.assignmentmanagement.dto.SubmissionPage;
+import com.assignmentmanagement.dto.SubmissionSummary;
 import com.assignmentmanagement.model.*;
 import com.assignmentmanagement.repository.SubmissionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.sql.Timestamp;
+import java.sql.Types;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class SubmissionService {
 
+    private static final Logger logger = LoggerFactory.getLogger(SubmissionService.class);
+
+    private static final int MAX_PAGE_SIZE = 100;
+    public static final int MAX_BULK_GRADE_ITEMS = 1000;
+    private static final int GRADE_BATCH_SIZE = 100;
+
+    private static final String BULK_GRADE_SQL =
+        "UPDATE submissions SET marks_obtained = ?, feedback = ?, graded_by = ?, graded_at = ?, status = ?, " +
+        "updated_at = ? WHERE id = ? AND assignment_id = ?";
+    // For imports, where a missing or empty feedback cell means "no change" rather than "clear it"
+    private static final String BULK_GRADE_KEEP_FEEDBACK_SQL =
+        "UPDATE submissions SET marks_obtained = ?, feedback = COALESCE(?, feedback), graded_by = ?, graded_at = ?, " +
+        "status = ?, updated_at = ? WHERE id = ? AND assignment_id = ?";
+
     @Autowired
     private SubmissionRepository submissionRepository;
 
     @Autowired
     private FileStorageService fileStorageService;
 
+    @Autowired
+    private AssignmentCodeIndex codeIndex;
+
+    @Autowired
+    private SubmissionPipeline submissionPipeline;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SubmissionStatsService submissionStatsService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Transactional
     public Submission createSubmission(Assignment assignment, User student, 
                                      String filePath, String originalFilename, Long fileSize) {
         
@@ -28,7 +75,13 @@ public class SubmissionService {
         }
 
         Submission submission = new Submission(assignment, student, filePath, originalFilename, fileSize);
-        return submissionRepository.save(submission);
+        Submission savedSubmission = submissionRepository.save(submission);
+        // Committed together with the submission, so no upload is left without its processing job
+        submissionPipeline.enqueue(savedSubmission);
+        codeIndex.adjustSubmissionCount(assignment.getId(), 1);
+        submissionStatsService.recordCreated(assignment.getId(), savedSubmission.getStatus(),
+            Boolean.TRUE.equals(savedSubmission.getIsLateSubmission()));
+        return savedSubmission;
     }
 
     public Optional<Submission> findById(Long id) {
@@ -51,6 +104,34 @@ public class SubmissionService {
         return submissionRepository.findSubmissionsByTeacher(teacher);
     }
 
+    /**
+     * Fetches one page of submission summaries in a single query using keyset pagination on (submittedAt, id).
+     * Null filters are ignored; the teacher, student and assignment ids scope the listing.
+     */
+    public SubmissionPage findSubmissionPage(Long teacherId, Long studentId, Long assignmentId,
+                                             SubmissionStatus status, Boolean late,
+                                             String cursor, int size, boolean ascending) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        SubmissionPage.Cursor position = SubmissionPage.decodeCursor(cursor);
+        LocalDateTime cursorTime = position != null ? position.getSubmittedAt() : null;
+        Long cursorId = position != null ? position.getId() : null;
+
+        // Fetch one extra row to learn whether another page follows
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+        List<SubmissionSummary> rows = ascending
+            ? submissionRepository.findSummaryPageAscending(teacherId, studentId, assignmentId, status, late, cursorTime, cursorId, limit)
+            : submissionRepository.findSummaryPageDescending(teacherId, studentId, assignmentId, status, late, cursorTime, cursorId, limit);
+
+        boolean hasMore = rows.size() > pageSize;
+        List<SubmissionSummary> items = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            SubmissionSummary last = items.get(items.size() - 1);
+            nextCursor = SubmissionPage.encodeCursor(last.getSubmittedAt(), last.getId());
+        }
+        return new SubmissionPage(items, nextCursor, hasMore);
+    }
+
     public List<Submission> findSubmissionsByStatus(SubmissionStatus status) {
         return submissionRepository.findByStatus(status);
     }
@@ -59,10 +140,14 @@ public class SubmissionService {
         return submissionRepository.save(submission);
     }
 
+    @Transactional
     public Submission gradeSubmission(Long submissionId, Integer marks, String feedback, User gradedBy) {
+        SubmissionStatus previousStatus = lockStatus(submissionId);
         Optional<Submission> submissionOpt = submissionRepository.findById(submissionId);
-        if (submissionOpt.isPresent()) {
+        if (previousStatus != null && submissionOpt.isPresent()) {
             Submission submission = submissionOpt.get();
+            submissionStatsService.recordStatusChange(submission.getAssignment().getId(),
+                previousStatus, SubmissionStatus.COMPLETED);
             submission.setMarksObtained(marks);
             submission.setFeedback(feedback);
             submission.setGradedBy(gradedBy);
@@ -73,39 +158,161 @@ public class SubmissionService {
         throw new RuntimeException("Submission not found with id: " + submissionId);
     }
 
+    /**
+     * Grades many submissions of one assignment in a single transaction.
+     * Ownership is checked by the caller once for the assignment; here each row is only
+     * confirmed to belong to it, with one query, before the updates go out as JDBC batches.
+     * Rows that fail validation are reported and skipped without affecting the rest.
+     */
+    @Transactional
+    public BulkGradeResult gradeSubmissionsBulk(Long assignmentId, List<BulkGradeRequest.Item> items, User gradedBy) {
+        return gradeSubmissionsBulk(assignmentId, items, gradedBy, false);
+    }
+
+    /**
+     * As above; with keepFeedbackWhenNull, items without feedback leave the stored feedback as it is
+     */
+    @Transactional
+    public BulkGradeResult gradeSubmissionsBulk(Long assignmentId, List<BulkGradeRequest.Item> items, User gradedBy,
+                                                boolean keepFeedbackWhenNull) {
+        if (items.size() > MAX_BULK_GRADE_ITEMS) {
+            throw new RuntimeException("At most " + MAX_BULK_GRADE_ITEMS + " grades can be submitted at once");
+        }
+
+        Set<Long> requestedIds = new HashSet<>();
+        for (BulkGradeRequest.Item item : items) {
+            if (item.getSubmissionId() != null) {
+                requestedIds.add(item.getSubmissionId());
+            }
+        }
+        Map<Long, SubmissionStatus> currentStatuses = new HashMap<>();
+        if (!requestedIds.isEmpty()) {
+            for (Object[] row : submissionRepository.findStatusesByAssignmentAndIdIn(assignmentId, requestedIds)) {
+                currentStatuses.put((Long) row[0], (SubmissionStatus) row[1]);
+            }
+        }
+
+        List<GradeItemResult> results = new ArrayList<>(items.size());
+        List<BulkGradeRequest.Item> accepted = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        for (BulkGradeRequest.Item item : items) {
+            String error = null;
+            if (item.getSubmissionId() == null) {
+                error = "Submission id is required";
+            } else if (item.getMarks() == null || item.getMarks() < 0 || item.getMarks() > 100) {
+                error = "Marks must be between 0 and 100";
+            } else if (!currentStatuses.containsKey(item.getSubmissionId())) {
+                error = "Submission not found for this assignment";
+            } else if (!seen.add(item.getSubmissionId())) {
+                error = "Duplicate submission id";
+            }
+            results.add(new GradeItemResult(item.getSubmissionId(), error == null, error));
+            if (error == null) {
+                accepted.add(item);
+            }
+        }
+
+        if (!accepted.isEmpty()) {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            String sql = keepFeedbackWhenNull ? BULK_GRADE_KEEP_FEEDBACK_SQL : BULK_GRADE_SQL;
+            jdbcTemplate.batchUpdate(sql, accepted, GRADE_BATCH_SIZE, (ps, item) -> {
+                ps.setInt(1, item.getMarks());
+                if (item.getFeedback() != null) {
+                    ps.setString(2, item.getFeedback());
+                } else {
+                    ps.setNull(2, Types.LONGVARCHAR);
+                }
+                ps.setLong(3, gradedBy.getId());
+                ps.setTimestamp(4, now);
+                ps.setString(5, SubmissionStatus.COMPLETED.name());
+                ps.setTimestamp(6, now);
+                ps.setLong(7, item.getSubmissionId());
+                ps.setLong(8, assignmentId);
+            });
+
+            int wasPending = 0;
+            int wasGraded = 0;
+            for (BulkGradeRequest.Item item : accepted) {
+                SubmissionStatus previous = currentStatuses.get(item.getSubmissionId());
+                wasPending += previous == SubmissionStatus.PENDING ? 1 : 0;
+                wasGraded += previous == SubmissionStatus.COMPLETED ? 1 : 0;
+            }
+            submissionStatsService.recordGraded(assignmentId, accepted.size(), wasPending, wasGraded);
+        }
+
+        return new BulkGradeResult(accepted.size(), items.size() - accepted.size(), results);
+    }
+
+    /**
+     * Grades a submission, optionally replacing its corrected file. The file is stored before the
+     * transaction starts, so a slow upload holds neither a connection nor the row lock, and the
+     * replaced file is only released once the grade has committed.
+     */
     public Submission gradeSubmissionWithFile(Long submissionId, Integer marks, String feedback, 
                                             MultipartFile correctedFile, User gradedBy) {
-        Optional<Submission> submissionOpt = submissionRepository.findById(submissionId);
-        if (submissionOpt.isPresent()) {
-            Submission submission = submissionOpt.get();
-            submission.setMarksObtained(marks);
-            submission.setFeedback(feedback);
-            submission.setGradedBy(gradedBy);
-            submission.setGradedAt(LocalDateTime.now());
-            submission.setStatus(SubmissionStatus.COMPLETED);
+        String correctedFilePath = null;
+        if (correctedFile != null && !correctedFile.isEmpty()) {
+            String assignmentCode = submissionRepository.findAssignmentCodeById(submissionId)
+                .orElseThrow(() -> new RuntimeException("Submission not found with id: " + submissionId));
+            try {
+                String teacherEmail = gradedBy.getEmail();
+                correctedFilePath = fileStorageService.storeFile(correctedFile, assignmentCode, "corrected_by_" + teacherEmail);
+            } catch (Exception e) {
+                throw new RuntimeException("Failed to store corrected file: " + e.getMessage());
+            }
+        }
 
-            // Handle corrected file if provided
-            if (correctedFile != null && !correctedFile.isEmpty()) {
-                try {
-                    String assignmentCode = submission.getAssignment().getAssignmentCode();
-                    String teacherEmail = gradedBy.getEmail();
-                    String correctedFilePath = fileStorageService.storeFile(correctedFile, assignmentCode, "corrected_by_" + teacherEmail);
-                    submission.setCorrectedFilePath(correctedFilePath);
+        String newCorrectedPath = correctedFilePath;
+        String[] previousCorrectedPath = new String[1];
+        Submission savedSubmission;
+        try {
+            savedSubmission = transactionTemplate.execute(status -> {
+                SubmissionStatus previousStatus = lockStatus(submissionId);
+                Optional<Submission> submissionOpt = submissionRepository.findById(submissionId);
+                if (previousStatus == null || submissionOpt.isEmpty()) {
+                    throw new RuntimeException("Submission not found with id: " + submissionId);
+                }
+                Submission submission = submissionOpt.get();
+                submission.setMarksObtained(marks);
+                submission.setFeedback(feedback);
+                submission.setGradedBy(gradedBy);
+                submission.setGradedAt(LocalDateTime.now());
+                submission.setStatus(SubmissionStatus.COMPLETED);
+
+                previousCorrectedPath[0] = submission.getCorrectedFilePath();
+                if (newCorrectedPath != null) {
+                    submission.setCorrectedFilePath(newCorrectedPath);
                     submission.setCorrectedFilename(correctedFile.getOriginalFilename());
-                } catch (Exception e) {
-                    throw new RuntimeException("Failed to store corrected file: " + e.getMessage());
                 }
-            }
 
-            return submissionRepository.save(submission);
+                Submission saved = submissionRepository.save(submission);
+                if (!Objects.equals(previousCorrectedPath[0], submission.getCorrectedFilePath())) {
+                    // Not written by save(); see Submission
+                    submissionRepository.setCorrectedFilePath(submissionId, submission.getCorrectedFilePath());
+                }
+                submissionStatsService.recordStatusChange(submission.getAssignment().getId(),
+                    previousStatus, SubmissionStatus.COMPLETED);
+                return saved;
+            });
+        } catch (RuntimeException e) {
+            releaseFile(newCorrectedPath);
+            throw e;
         }
-        throw new RuntimeException("Submission not found with id: " + submissionId);
+
+        if (previousCorrectedPath[0] != null && !previousCorrectedPath[0].equals(savedSubmission.getCorrectedFilePath())) {
+            releaseFile(previousCorrectedPath[0]);
+        }
+        return savedSubmission;
     }
 
+    @Transactional
     public void updateSubmissionStatus(Long submissionId, SubmissionStatus status) {
+        SubmissionStatus previousStatus = lockStatus(submissionId);
         Optional<Submission> submissionOpt = submissionRepository.findById(submissionId);
-        if (submissionOpt.isPresent()) {
+        if (previousStatus != null && submissionOpt.isPresent()) {
             Submission submission = submissionOpt.get();
+            submissionStatsService.recordStatusChange(submission.getAssignment().getId(),
+                previousStatus, status);
             submission.setStatus(status);
             submissionRepository.save(submission);
         }
@@ -152,27 +359,45 @@ public class SubmissionService {
     }
 
     public void deleteSubmission(Long id) {
-        submissionRepository.deleteById(id);
+        Optional<Submission> submissionOpt = submissionRepository.findById(id);
+        if (submissionOpt.isPresent()) {
+            Submission submission = submissionOpt.get();
+            Long assignmentId = submission.getAssignment().getId();
+            submissionRepository.delete(submission);
+            codeIndex.adjustSubmissionCount(assignmentId, -1);
+            submissionStatsService.recordDeleted(assignmentId, submission.getStatus(),
+                Boolean.TRUE.equals(submission.getIsLateSubmission()));
+            releaseFile(submission.getFilePath());
+            releaseFile(submission.getCorrectedFilePath());
+        }
     }
 
+    // File cleanup must never fail the database change that made the file unreferenced
     /**
-     * Get submission statistics for a teacher
+     * Locks the submission row for the rest of the transaction and returns its committed status,
+     * so two concurrent status changes cannot both apply a stats delta from the same old status
+     * @return null if the submission does not exist
+     */
+    private SubmissionStatus lockStatus(Long submissionId) {
+        return submissionRepository.lockStatusById(submissionId).map(SubmissionStatus::valueOf).orElse(null);
+    }
+
+    private void releaseFile(String filePath) {
+        if (filePath == null || filePath.isEmpty()) {
+            return;
+        }
+        try {
+            fileStorageService.deleteFile(filePath);
+        } catch (RuntimeException e) {
+            logger.warn("Could not release file {}: {}", filePath, e.getMessage());
+        }
+    }
+
+    /**
+     * Get submission statistics for a teacher from the precomputed per-assignment counts
      */
     public SubmissionStats getSubmissionStats(User teacher) {
-        List<Submission> submissions = findSubmissionsByTeacher(teacher);
-        
-        long totalSubmissions = submissions.size();
-        long pendingSubmissions = submissions.stream()
-            .mapToLong(s -> s.getStatus() == SubmissionStatus.PENDING ? 1 : 0)
-            .sum();
-        long gradedSubmissions = submissions.stream()
-            .mapToLong(s -> s.getStatus() == SubmissionStatus.COMPLETED ? 1 : 0)
-            .sum();
-        long lateSubmissions = submissions.stream()
-            .mapToLong(s -> s.getIsLateSubmission() ? 1 : 0)
-            .sum();
-        
-        return new SubmissionStats(totalSubmissions, pendingSubmissions, gradedSubmissions, lateSubmissions);
+        return submissionStatsService.getStats(teacher.getId());
     }
 
     // Inner class for submission statistics
@@ -196,4 +421,40 @@ public class SubmissionService {
         public long getGradedSubmissions() { return gradedSubmissions; }
         public long getLateSubmissions() { return lateSubmissions; }
     }
-}
\ No newline at end of file
+
+    // Inner class for the outcome of one bulk grading row
+    public static class GradeItemResult {
+        private final Long submissionId;
+        private final boolean success;
+        private final String error;
+
+        public GradeItemResult(Long submissionId, boolean success, String error) {
+            this.submissionId = submissionId;
+            this.success = success;
+            this.error = error;
+        }
+
+        // Getters
+        public Long getSubmissionId() { return submissionId; }
+        public boolean isSuccess() { return success; }
+        public String getError() { return error; }
+    }
+
+    // Inner class for bulk grading results
+    public static class BulkGradeResult {
+        private final int graded;
+        private final int failed;
+        private final List<GradeItemResult> results;
+
+        public BulkGradeResult(int graded, int failed, List<GradeItemResult> results) {
+            this.graded = graded;
+            this.failed = failed;
+            this.results = results;
+        }
+
+        // Getters
+        public int getGraded() { return graded; }
+        public int getFailed() { return failed; }
+        public List<GradeItemResult> getResults() { return results; }
+    }
+}
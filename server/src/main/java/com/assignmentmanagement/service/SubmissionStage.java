@@ -0,0 +1,15 @@
+package com.assignmentmanagement.service;
+
+import com.assignmentmanagement.model.Submission;
+
+/**
+ * One step of the post-upload pipeline.
+ * Stages run in @Order order; a stage must be safe to run again, since a job that is
+ * interrupted mid-stage is retried from the start of that stage.
+ */
+public interface SubmissionStage {
+
+    String getName();
+
+    void process(Submission submission) throws Exception;
+}
@@ -0,0 +1,91 @@
+package com.assignmentmanagement.service;
+
+import com.assignmentmanagement.model.SubmissionStatus;
+import com.assignmentmanagement.repository.SubmissionStatsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Teacher dashboard counts kept in the submission_stats table, one row per assignment.
+ * SubmissionService applies each change as a delta upsert, inside the same transaction where
+ * it has one, so reading a teacher's stats sums a handful of rows instead of loading every
+ * submission. A periodic recount over assignment id ranges repairs any drift and seeds rows
+ * for data that predates the table.
+ */
+@Service
+public class SubmissionStatsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SubmissionStatsService.class);
+
+    @Autowired
+    private SubmissionStatsRepository submissionStatsRepository;
+
+    @Value("${submission.stats.reconcile-batch-size:500}")
+    private int reconcileBatchSize;
+
+    public SubmissionService.SubmissionStats getStats(Long teacherId) {
+        List<Object[]> rows = submissionStatsRepository.sumByTeacher(teacherId);
+        if (rows.isEmpty()) {
+            return new SubmissionService.SubmissionStats(0, 0, 0, 0);
+        }
+        Object[] row = rows.get(0);
+        return new SubmissionService.SubmissionStats(count(row[0]), count(row[1]), count(row[2]), count(row[3]));
+    }
+
+    public void recordCreated(Long assignmentId, SubmissionStatus status, boolean late) {
+        submissionStatsRepository.adjust(assignmentId, 1, is(status, SubmissionStatus.PENDING),
+            is(status, SubmissionStatus.COMPLETED), late ? 1 : 0);
+    }
+
+    public void recordStatusChange(Long assignmentId, SubmissionStatus from, SubmissionStatus to) {
+        if (from == to) {
+            return;
+        }
+        submissionStatsRepository.adjust(assignmentId, 0,
+            is(to, SubmissionStatus.PENDING) - is(from, SubmissionStatus.PENDING),
+            is(to, SubmissionStatus.COMPLETED) - is(from, SubmissionStatus.COMPLETED), 0);
+    }
+
+    /**
+     * Records a batch of submissions moving to COMPLETED, given how many were pending and how many already graded
+     */
+    public void recordGraded(Long assignmentId, int count, int wasPending, int wasGraded) {
+        if (count - wasGraded == 0 && wasPending == 0) {
+            return;
+        }
+        submissionStatsRepository.adjust(assignmentId, 0, -wasPending, count - wasGraded, 0);
+    }
+
+    public void recordDeleted(Long assignmentId, SubmissionStatus status, boolean late) {
+        submissionStatsRepository.adjust(assignmentId, -1, -is(status, SubmissionStatus.PENDING),
+            -is(status, SubmissionStatus.COMPLETED), late ? -1 : 0);
+    }
+
+    /**
+     * Recounts every assignment's row from the submissions table, a range of ids at a time so
+     * each statement locks only a slice of the submissions
+     */
+    @Scheduled(fixedDelayString = "${submission.stats.reconcile-interval-ms:3600000}")
+    public void reconcile() {
+        long maxId = submissionStatsRepository.findMaxAssignmentId();
+        for (long fromId = 1; fromId <= maxId; fromId += reconcileBatchSize) {
+            submissionStatsRepository.recount(fromId, fromId + reconcileBatchSize - 1);
+        }
+        int orphaned = submissionStatsRepository.deleteOrphaned();
+        logger.debug("Submission stats reconciled up to assignment {}, {} orphaned rows removed", maxId, orphaned);
+    }
+
+    private static int is(SubmissionStatus status, SubmissionStatus expected) {
+        return status == expected ? 1 : 0;
+    }
+
+    private static long count(Object value) {
+        return value != null ? ((Number) value).longValue() : 0;
+    }
+}
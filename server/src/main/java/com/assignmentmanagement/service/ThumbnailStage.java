@@ -0,0 +1,33 @@
+package com.assignmentmanagement.service;
+
+import com.assignmentmanagement.model.Submission;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Warms the render cache with the first page thumbnails so grading lists open without a render
+ */
+@Component
+@Order(3)
+public class ThumbnailStage implements SubmissionStage {
+
+    @Autowired
+    private PageRenderService pageRenderService;
+
+    @Value("${file.render-cache.prerender-pages:1}")
+    private int prerenderPages;
+
+    @Override
+    public String getName() {
+        return "thumbnails";
+    }
+
+    @Override
+    public void process(Submission submission) throws Exception {
+        if (prerenderPages > 0) {
+            pageRenderService.prerenderThumbnails(submission.getFilePath(), prerenderPages);
+        }
+    }
+}
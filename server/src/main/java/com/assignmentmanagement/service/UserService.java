@@ -3,6 +3,9 @@ package com.assignmentmanagement.service;
 import com.assignmentmanagement.model.User;
 import com.assignmentmanagement.model.UserRole;
 import com.assignmentmanagement.repository.UserRepository;
+import com.assignmentmanagement.security.AuthenticatedUser;
+import com.assignmentmanagement.security.TokenRevocationRegistry;
+import com.assignmentmanagement.security.UserPrincipalCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -22,6 +25,12 @@ public class UserService implements UserDetailsService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private UserPrincipalCache principalCache;
+
+    @Autowired
+    private TokenRevocationRegistry revocationRegistry;
+
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
         User user = userRepository.findByEmail(email)
@@ -53,6 +62,14 @@ public class UserService implements UserDetailsService {
         return userRepository.findById(id);
     }
 
+    /**
+     * Returns a lazy reference to the authenticated user without querying the database.
+     * Use it to pass the current user into queries or associations; reading other fields loads the row.
+     */
+    public User getUserReference(AuthenticatedUser principal) {
+        return userRepository.getReferenceById(principal.getId());
+    }
+
     public List<User> findUsersByRole(UserRole role) {
         return userRepository.findByRoleAndIsActiveTrue(role);
     }
@@ -66,7 +83,25 @@ public class UserService implements UserDetailsService {
     }
 
     public User updateUser(User user) {
-        return userRepository.save(user);
+        // Tokens carry the email as subject, so a changed email must drop the old entry too
+        Optional<String> previousEmail = user.getId() != null
+            ? userRepository.findStoredEmailById(user.getId())
+            : Optional.empty();
+        User savedUser = userRepository.save(user);
+        principalCache.invalidate(savedUser.getEmail());
+        previousEmail.filter(email -> !email.equals(savedUser.getEmail())).ifPresent(principalCache::invalidate);
+        return savedUser;
+    }
+
+    /**
+     * Changes the user's role and revokes tokens issued with the previous role
+     */
+    public User changeRole(User user, UserRole role) {
+        user.setRole(role);
+        user.setTokenVersion(nextTokenVersion(user));
+        User savedUser = updateUser(user);
+        revocationRegistry.revokeBefore(savedUser.getId(), savedUser.getTokenVersion());
+        return savedUser;
     }
 
     public void deactivateUser(Long userId) {
@@ -74,10 +109,17 @@ public class UserService implements UserDetailsService {
         if (userOpt.isPresent()) {
             User user = userOpt.get();
             user.setIsActive(false);
+            user.setTokenVersion(nextTokenVersion(user));
             userRepository.save(user);
+            principalCache.invalidate(user.getEmail());
+            revocationRegistry.revokeAll(user.getId());
         }
     }
 
+    private int nextTokenVersion(User user) {
+        return user.getTokenVersion() != null ? user.getTokenVersion() + 1 : 1;
+    }
+
     public boolean existsByEmail(String email) {
         return userRepository.existsByEmail(email);
     }
@@ -1,5 +1,6 @@
 package com.assignmentmanagement.util;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.security.SecureRandom;
@@ -10,6 +11,27 @@ public class AssignmentCodeGenerator {
     private static final String CHARACTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
     private static final int CODE_LENGTH = 5;
     private static final SecureRandom random = new SecureRandom();
+
+    /** Number of distinct codes: 36^5 */
+    public static final long CODE_SPACE = 60_466_176L;
+
+    // Feistel network over 26 bits (2^26 >= 36^5), split into two 13-bit halves
+    private static final int HALF_BITS = 13;
+    private static final int HALF_MASK = (1 << HALF_BITS) - 1;
+    private static final int ROUNDS = 4;
+
+    private final int[] roundKeys = new int[ROUNDS];
+
+    public AssignmentCodeGenerator(@Value("${assignment.code.permutation-key:7046029254386353131}") long permutationKey) {
+        long state = permutationKey;
+        for (int i = 0; i < ROUNDS; i++) {
+            state += 0x9E3779B97F4A7C15L;
+            long z = state;
+            z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+            z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+            roundKeys[i] = (int) (z ^ (z >>> 31));
+        }
+    }
     
     /**
      * Generates a random 5-digit alphanumeric code
@@ -25,6 +47,59 @@ public class AssignmentCodeGenerator {
         
         return code.toString();
     }
+
+    /**
+     * Maps a sequence number to a code. Distinct sequence numbers always give distinct codes,
+     * but consecutive numbers give unrelated-looking codes.
+     * @param sequence a value in [0, CODE_SPACE)
+     * @return the 5-character code for that sequence number
+     */
+    public String codeForSequence(long sequence) {
+        if (sequence < 0 || sequence >= CODE_SPACE) {
+            throw new IllegalArgumentException("Sequence out of code space: " + sequence);
+        }
+        return encode(permute((int) sequence));
+    }
+
+    /**
+     * Keyed bijection on [0, CODE_SPACE): a Feistel permutation on 26 bits with cycle walking
+     * to stay inside the code space
+     */
+    private int permute(int value) {
+        int result = feistel(value);
+        while (result >= CODE_SPACE) {
+            result = feistel(result);
+        }
+        return result;
+    }
+
+    private int feistel(int value) {
+        int left = (value >>> HALF_BITS) & HALF_MASK;
+        int right = value & HALF_MASK;
+        for (int round = 0; round < ROUNDS; round++) {
+            int mixed = left ^ roundFunction(right, roundKeys[round]);
+            left = right;
+            right = mixed;
+        }
+        return (left << HALF_BITS) | right;
+    }
+
+    private static int roundFunction(int half, int key) {
+        int x = (half ^ key) * 0x9E3779B1;
+        x ^= x >>> 15;
+        x *= 0x85EBCA6B;
+        x ^= x >>> 13;
+        return x & HALF_MASK;
+    }
+
+    private static String encode(int value) {
+        char[] code = new char[CODE_LENGTH];
+        for (int i = CODE_LENGTH - 1; i >= 0; i--) {
+            code[i] = CHARACTERS.charAt(value % CHARACTERS.length());
+            value /= CHARACTERS.length();
+        }
+        return new String(code);
+    }
     
     /**
      * Validates if a code follows the correct format
@@ -38,4 +113,4 @@ public class AssignmentCodeGenerator {
         
         return code.matches("[A-Z0-9]{5}");
     }
-}
\ No newline at end of file
+}
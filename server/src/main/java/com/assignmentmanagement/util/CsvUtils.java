@@ -0,0 +1,160 @@
+package com.assignmentmanagement.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal RFC 4180 CSV reading and writing: comma separated, fields quoted when they contain
+ * a comma, quote or line break, quotes doubled inside quoted fields.
+ */
+public final class CsvUtils {
+
+    private CsvUtils() {}
+
+    public static void writeRow(Writer writer, Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(escape(values[i] != null ? values[i].toString() : ""));
+        }
+        writer.write("\r\n");
+    }
+
+    public static String escape(String value) {
+        // A leading formula character would be evaluated by spreadsheet applications
+        if (!value.isEmpty() && "=+-@".indexOf(value.charAt(0)) != -1 && !isNumber(value)) {
+            value = "'" + value;
+        }
+        if (value.indexOf(',') == -1 && value.indexOf('"') == -1
+            && value.indexOf('\n') == -1 && value.indexOf('\r') == -1) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * Reverses the formula guard added by escape
+     */
+    public static String unescapeCell(String value) {
+        if (value.length() > 1 && value.charAt(0) == '\'' && "=+-@".indexOf(value.charAt(1)) != -1) {
+            return value.substring(1);
+        }
+        return value;
+    }
+
+    private static boolean isNumber(String value) {
+        try {
+            Double.parseDouble(value);
+            return true;
+        } catch (NumberFormatException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Reads records one at a time, so a file of any size is parsed in constant memory
+     */
+    public static class RecordReader implements AutoCloseable {
+        // Matches a TEXT column; an unclosed quote would otherwise buffer the rest of the input
+        public static final int MAX_FIELD_LENGTH = 65535;
+
+        private final Reader in;
+        private int lineNumber = 1;
+        private int recordLine;
+        private int pending = -2;
+
+        public RecordReader(Reader in) {
+            this.in = in;
+        }
+
+        /**
+         * @return the next record's fields, or null at end of input
+         */
+        public List<String> next() throws IOException {
+            int c = read();
+            if (c == -1) {
+                return null;
+            }
+            recordLine = lineNumber;
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            boolean afterQuote = false;
+
+            while (true) {
+                if (c == -1) {
+                    fields.add(field.toString());
+                    return fields;
+                }
+                if (quoted) {
+                    if (c == '"') {
+                        int following = read();
+                        if (following == '"') {
+                            append(field, '"');
+                        } else {
+                            quoted = false;
+                            afterQuote = true;
+                            c = following;
+                            continue;
+                        }
+                    } else {
+                        if (c == '\n') {
+                            lineNumber++;
+                        }
+                        append(field, c);
+                    }
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                    afterQuote = false;
+                } else if (c == '\r' || c == '\n') {
+                    if (c == '\r') {
+                        int following = read();
+                        if (following != '\n') {
+                            pending = following;
+                        }
+                    }
+                    lineNumber++;
+                    fields.add(field.toString());
+                    return fields;
+                } else if (c == '"' && field.length() == 0 && !afterQuote) {
+                    quoted = true;
+                } else {
+                    append(field, c);
+                }
+                c = read();
+            }
+        }
+
+        private void append(StringBuilder field, int c) {
+            if (field.length() >= MAX_FIELD_LENGTH) {
+                throw new RuntimeException("Field in the record starting on line " + recordLine
+                    + " is longer than " + MAX_FIELD_LENGTH + " characters");
+            }
+            field.append((char) c);
+        }
+
+        // 1-based line on which the last record returned by next() started
+        public int getRecordLine() {
+            return recordLine;
+        }
+
+        private int read() throws IOException {
+            if (pending != -2) {
+                int c = pending;
+                pending = -2;
+                return c;
+            }
+            return in.read();
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.assignmentmanagement.repository;
+
+import com.assignmentmanagement.model.Assignment;
+import com.assignmentmanagement.model.Submission;
+import com.assignmentmanagement.model.SubmissionStatus;
+import com.assignmentmanagement.model.User;
+import com.assignmentmanagement.model.UserRole;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The submission list queries must not issue per-row lazy loads while the results are
+ * serialized, so the statement count has to stay the same when the data set doubles.
+ */
+@DataJpaTest(properties = {
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+class SubmissionListStatementCountTest {
+
+    private static final int N = 10;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private SubmissionRepository submissionRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private User teacher;
+    private User firstStudent;
+    private Assignment firstAssignment;
+
+    @BeforeEach
+    void seedOwners() {
+        teacher = entityManager.persist(new User("teacher@example.com", "secret", "Tina", "Teacher", UserRole.TEACHER));
+        firstStudent = entityManager.persist(new User("student0@example.com", "secret", "Sam", "Student0", UserRole.STUDENT));
+        firstAssignment = entityManager.persist(newAssignment(0));
+    }
+
+    @Test
+    void listStatementCountDoesNotGrowWithSubmissions() throws Exception {
+        seedSubmissions(1, N);
+        long statementsForN = countListStatements();
+
+        seedSubmissions(N, 2 * N);
+        long statementsFor2N = countListStatements();
+
+        assertThat(submissionRepository.findSubmissionsByTeacher(teacher)).hasSize(2 * (2 * N - 1));
+        assertThat(statementsFor2N).isEqualTo(statementsForN);
+    }
+
+    // Each index i adds a student submitting to the first assignment and an assignment the first student submits to,
+    // so the assignment, student and teacher lists all grow with i; every other submission is graded
+    private void seedSubmissions(int from, int to) {
+        for (int i = from; i < to; i++) {
+            User student = entityManager.persist(
+                new User("student" + i + "@example.com", "secret", "Sam", "Student" + i, UserRole.STUDENT));
+            Assignment assignment = entityManager.persist(newAssignment(i));
+            persistSubmission(firstAssignment, student, i);
+            persistSubmission(assignment, firstStudent, i);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private void persistSubmission(Assignment assignment, User student, int i) {
+        Submission submission = new Submission(assignment, student, "uploads/" + assignment.getAssignmentCode()
+            + "/" + student.getId() + ".pdf", "work.pdf", 1024L);
+        if (i % 2 == 0) {
+            submission.setMarksObtained(80);
+            submission.setGradedBy(teacher);
+            submission.setGradedAt(LocalDateTime.now());
+            submission.setStatus(SubmissionStatus.COMPLETED);
+        }
+        entityManager.persist(submission);
+    }
+
+    // Odd assignments are already past their deadline, so the first student's submissions to them are late
+    private Assignment newAssignment(int i) {
+        LocalDateTime deadline = i % 2 == 1 ? LocalDateTime.now().minusDays(1) : LocalDateTime.now().plusDays(7);
+        return new Assignment("Assignment " + i, "Description", String.format("A%04d", i), teacher,
+            deadline, 100, null);
+    }
+
+    // Runs and serializes every list query from a cold persistence context
+    private long countListStatements() throws Exception {
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        User teacherRef = entityManager.getEntityManager().getReference(User.class, teacher.getId());
+        User studentRef = entityManager.getEntityManager().getReference(User.class, firstStudent.getId());
+        Assignment assignmentRef = entityManager.getEntityManager().getReference(Assignment.class, firstAssignment.getId());
+
+        objectMapper.writeValueAsString(submissionRepository.findByAssignmentOrderBySubmittedAt(assignmentRef));
+        objectMapper.writeValueAsString(submissionRepository.findByStudentOrderBySubmittedAtDesc(studentRef));
+        objectMapper.writeValueAsString(submissionRepository.findSubmissionsByTeacher(teacherRef));
+        objectMapper.writeValueAsString(submissionRepository.findByStatus(SubmissionStatus.COMPLETED));
+        objectMapper.writeValueAsString(submissionRepository.findLateSubmissionsByTeacher(teacherRef));
+        objectMapper.writeValueAsString(submissionRepository.findSubmissionsByTeacherAndDateRange(teacherRef,
+            LocalDateTime.now().minusDays(1), LocalDateTime.now().plusDays(1)));
+        objectMapper.writeValueAsString(submissionRepository.findSummaryPageDescending(teacher.getId(), null, null,
+            null, null, null, null, PageRequest.of(0, 4 * N)));
+
+        long statements = statistics.getPrepareStatementCount();
+        entityManager.clear();
+        return statements;
+    }
+}
@@ -0,0 +1,218 @@
+package com.assignmentmanagement.service;
+
+import com.assignmentmanagement.dto.AnnotationDto;
+import com.assignmentmanagement.model.AnnotationType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the grid against a brute-force scan on a page with thousands of annotations, before
+ * and after incremental batches, and times point and region lookups.
+ */
+class AnnotationSpatialIndexTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnnotationSpatialIndexTest.class);
+
+    private static final long SUBMISSION_ID = 1L;
+    private static final int PAGE = 1;
+    private static final int ANNOTATIONS = 5000;
+    private static final float PAGE_WIDTH = 612;
+    private static final float PAGE_HEIGHT = 792;
+
+    private final Random random = new Random(42);
+    private StubAnnotationService annotationService;
+    private AnnotationSpatialIndex index;
+    private List<AnnotationDto> annotations;
+    private long nextId = 1;
+
+    @BeforeEach
+    void setUp() {
+        annotations = new ArrayList<>();
+        for (int i = 0; i < ANNOTATIONS; i++) {
+            annotations.add(randomAnnotation(nextId++));
+        }
+        annotationService = new StubAnnotationService(7, annotations);
+        index = newIndex(annotationService);
+    }
+
+    @Test
+    void matchesBruteForceScan() {
+        assertMatchesBruteForce(2000);
+    }
+
+    @Test
+    void matchesBruteForceScanAfterBatches() {
+        // Batches only reach an index that is already cached
+        index.findAt(SUBMISSION_ID, PAGE, 0, 0);
+        long version = 7;
+        for (int batch = 0; batch < 20; batch++) {
+            List<Long> deleted = new ArrayList<>();
+            for (int i = 0; i < 25; i++) {
+                deleted.add(annotations.remove(random.nextInt(annotations.size())).getId());
+            }
+            List<AnnotationDto> upserts = new ArrayList<>();
+            for (int i = 0; i < 25; i++) {
+                // Moves an existing annotation, possibly beyond the page's original bounding box
+                AnnotationDto moved = randomAnnotation(annotations.get(random.nextInt(annotations.size())).getId());
+                moved.setX(moved.getX() * 1.5f - 100);
+                annotations.removeIf(annotation -> annotation.getId().equals(moved.getId()));
+                annotations.add(moved);
+                upserts.add(moved);
+            }
+            for (int i = 0; i < 200; i++) {
+                AnnotationDto created = randomAnnotation(nextId++);
+                annotations.add(created);
+                upserts.add(created);
+            }
+            index.applyBatch(SUBMISSION_ID, ++version, deleted, upserts);
+        }
+        annotationService.version = version;
+        assertMatchesBruteForce(2000);
+        assertThat(annotationService.loads).isEqualTo(1);
+    }
+
+    @Test
+    void indexLoadedDuringBatchIsNotCached() {
+        // The batch commits between the load and the version check
+        annotationService.versionAfterLoad = 8L;
+        index.findAt(SUBMISSION_ID, PAGE, 10, 10);
+        index.findAt(SUBMISSION_ID, PAGE, 10, 10);
+
+        assertThat(annotationService.loads).isEqualTo(2);
+    }
+
+    @Test
+    void lookupsStaySubMillisecond() {
+        float[][] points = new float[10_000][];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = new float[] {random.nextFloat() * PAGE_WIDTH, random.nextFloat() * PAGE_HEIGHT};
+        }
+        float[][] regions = new float[10_000][];
+        for (int i = 0; i < regions.length; i++) {
+            regions[i] = new float[] {random.nextFloat() * PAGE_WIDTH, random.nextFloat() * PAGE_HEIGHT,
+                random.nextFloat() * 50, random.nextFloat() * 50};
+        }
+
+        // Builds the index and warms up the JIT
+        for (int round = 0; round < 3; round++) {
+            timePoints(points);
+            timeRegions(regions);
+        }
+        double pointNanos = timePoints(points);
+        double regionNanos = timeRegions(regions);
+
+        logger.debug("AnnotationSpatialIndex, {} annotations: findAt {} us, findIntersecting {} us",
+            ANNOTATIONS, String.format("%.2f", pointNanos / 1000), String.format("%.2f", regionNanos / 1000));
+        assertThat(pointNanos).isLessThan(1_000_000);
+        assertThat(regionNanos).isLessThan(1_000_000);
+    }
+
+    private double timePoints(float[][] points) {
+        long hits = 0;
+        long start = System.nanoTime();
+        for (float[] point : points) {
+            hits += index.findAt(SUBMISSION_ID, PAGE, point[0], point[1]).size();
+        }
+        long elapsed = System.nanoTime() - start;
+        assertThat(hits).isGreaterThanOrEqualTo(0);
+        return (double) elapsed / points.length;
+    }
+
+    private double timeRegions(float[][] regions) {
+        long hits = 0;
+        long start = System.nanoTime();
+        for (float[] region : regions) {
+            hits += index.findIntersecting(SUBMISSION_ID, PAGE, region[0], region[1], region[2], region[3]).size();
+        }
+        long elapsed = System.nanoTime() - start;
+        assertThat(hits).isGreaterThanOrEqualTo(0);
+        return (double) elapsed / regions.length;
+    }
+
+    private void assertMatchesBruteForce(int queries) {
+        for (int i = 0; i < queries; i++) {
+            float x = random.nextFloat() * PAGE_WIDTH * 1.2f - 50;
+            float y = random.nextFloat() * PAGE_HEIGHT * 1.2f - 50;
+            float width = i % 2 == 0 ? 0 : random.nextFloat() * 120;
+            float height = i % 2 == 0 ? 0 : random.nextFloat() * 120;
+
+            List<AnnotationDto> found = width == 0 && height == 0
+                ? index.findAt(SUBMISSION_ID, PAGE, x, y)
+                : index.findIntersecting(SUBMISSION_ID, PAGE, x, y, width, height);
+            assertThat(found).doesNotHaveDuplicates();
+            assertThat(ids(found)).isEqualTo(bruteForce(x, y, x + width, y + height));
+        }
+    }
+
+    private Set<Long> bruteForce(float minX, float minY, float maxX, float maxY) {
+        Set<Long> ids = new TreeSet<>();
+        for (AnnotationDto annotation : annotations) {
+            if (annotation.getX() <= maxX && annotation.getX() + annotation.getWidth() >= minX
+                && annotation.getY() <= maxY && annotation.getY() + annotation.getHeight() >= minY) {
+                ids.add(annotation.getId());
+            }
+        }
+        return ids;
+    }
+
+    private Set<Long> ids(List<AnnotationDto> annotations) {
+        return annotations.stream().map(AnnotationDto::getId).collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    private AnnotationDto randomAnnotation(long id) {
+        // Mostly small marks with the occasional wide highlight spanning several cells
+        float width = random.nextInt(10) == 0 ? random.nextFloat() * 300 : random.nextFloat() * 40;
+        float height = random.nextFloat() * 20;
+        return new AnnotationDto(id, PAGE, random.nextFloat() * (PAGE_WIDTH - width),
+            random.nextFloat() * (PAGE_HEIGHT - height), width, height, AnnotationType.HIGHLIGHT, null, null);
+    }
+
+    private static AnnotationSpatialIndex newIndex(AnnotationService annotationService) {
+        AnnotationSpatialIndex index = new AnnotationSpatialIndex();
+        ReflectionTestUtils.setField(index, "annotationService", annotationService);
+        ReflectionTestUtils.setField(index, "maxSubmissions", 100);
+        ReflectionTestUtils.setField(index, "idleMs", 900_000L);
+        return index;
+    }
+
+    // Serves a fixed set of annotations in place of the database
+    private static class StubAnnotationService extends AnnotationService {
+        private final List<AnnotationDto> annotations;
+        private long version;
+        private Long versionAfterLoad;
+        private int loads;
+
+        StubAnnotationService(long version, List<AnnotationDto> annotations) {
+            this.version = version;
+            this.annotations = annotations;
+        }
+
+        @Override
+        public AnnotationWindow getAnnotationWindow(Long submissionId, int fromPage, int toPage, Long sinceVersion) {
+            loads++;
+            AnnotationWindow window = new AnnotationWindow(version, true, new ArrayList<>(annotations), List.of());
+            if (versionAfterLoad != null) {
+                version = versionAfterLoad;
+                versionAfterLoad = null;
+            }
+            return window;
+        }
+
+        @Override
+        public long getCurrentVersion(Long submissionId) {
+            return version;
+        }
+    }
+}